@@ -0,0 +1,50 @@
+package com.karzhou.parser.benchmark;
+
+import com.karzhou.parser.reader.TextReader;
+import com.karzhou.parser.service.ExpressionConverter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+final class BenchmarkCorpus {
+    private static final String PARAGRAPH_DELIMITER = "\t   ";
+    private static final Pattern EXPRESSION_PATTERN = Pattern.compile("\\p{Punct}*\\d[\\p{Punct}\\d]+");
+
+    private BenchmarkCorpus() { }
+
+    static String sampleText() {
+        return TextReader.readAllText(TextReader.INPUT_DATA_PATH);
+    }
+
+    static String withExpressions(int size) {
+        return repeat(sampleText(), size);
+    }
+
+    static String withNumbers(int size) {
+        return repeat(new ExpressionConverter().replaceExpressionsByNumber(sampleText()), size);
+    }
+
+    static List<String> expressions() {
+        List<String> expressions = new ArrayList<>();
+        Matcher matcher = EXPRESSION_PATTERN.matcher(sampleText());
+        while (matcher.find()) {
+            expressions.add(matcher.group());
+        }
+        return expressions;
+    }
+
+    private static String repeat(String sample, int size) {
+        StringBuilder corpus = new StringBuilder(size + sample.length());
+        while (corpus.length() < size) {
+            if (corpus.length() > 0) {
+                corpus.append(PARAGRAPH_DELIMITER);
+            }
+            corpus.append(sample);
+        }
+        corpus.setLength(size);
+        return corpus.toString();
+    }
+
+}
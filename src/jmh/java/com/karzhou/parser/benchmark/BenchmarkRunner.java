@@ -0,0 +1,37 @@
+package com.karzhou.parser.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs every benchmark of this package with the GC profiler, so each run reports
+ * throughput together with the allocation rate, and stores the results as JSON
+ * to compare against a baseline run. Regular JMH command line options
+ * (benchmark regexps, {@code -p corpusSize=1024}, {@code -rff}, ...) are honoured.
+ */
+public class BenchmarkRunner {
+    private static final String RESULT_FILE = "jmh-result.json";
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .parent(commandLineOptions)
+                .addProfiler(GCProfiler.class);
+
+        if (commandLineOptions.getIncludes().isEmpty()) {
+            options.include(BenchmarkRunner.class.getPackageName() + ".*Benchmark");
+        }
+        if (!commandLineOptions.getResult().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON).result(RESULT_FILE);
+        }
+
+        new Runner(options.build()).run();
+    }
+
+}
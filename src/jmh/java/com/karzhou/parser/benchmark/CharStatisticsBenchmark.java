@@ -0,0 +1,85 @@
+package com.karzhou.parser.benchmark;
+
+import com.karzhou.parser.analysis.CharStatistics;
+import com.karzhou.parser.analysis.SentenceLetterCounts;
+import com.karzhou.parser.composite.impl.CompactText;
+import com.karzhou.parser.parser.TextLexer;
+import com.karzhou.parser.service.TextOperation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Same code on both paths: the {@code vector*} benchmarks fork a JVM with the Vector API module,
+ * the {@code scalar*} ones a JVM without it, so CharStatistics falls back to its lookup table.
+ * Run the jar itself without {@code --add-modules}, the forks inherit its JVM arguments.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class CharStatisticsBenchmark {
+    private static final String VECTOR_MODULE_ARG = "--add-modules=jdk.incubator.vector";
+
+    @Param({"1024", "1048576"})
+    private int corpusSize;
+
+    private char[] chars;
+    private CompactText text;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkParams params) {
+        boolean vectorFork = params.getJvmArgs().contains(VECTOR_MODULE_ARG);
+        if (vectorFork != CharStatistics.isVectorized()) {
+            throw new IllegalStateException("Fork " + params.getBenchmark() + " expected vectorized=" + vectorFork
+                    + ", run the benchmark jar without --add-modules");
+        }
+        String corpus = BenchmarkCorpus.withNumbers(corpusSize);
+        chars = corpus.toCharArray();
+        text = new TextLexer().parseCompact(corpus);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = VECTOR_MODULE_ARG)
+    public CharStatistics vectorCountChars() {
+        return countChars();
+    }
+
+    @Benchmark
+    @Fork(1)
+    public CharStatistics scalarCountChars() {
+        return countChars();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = VECTOR_MODULE_ARG)
+    public SentenceLetterCounts vectorCountVowelsAndConsonantsOfCompactText() {
+        return TextOperation.countVowelsAndConsonantsBySentence(text);
+    }
+
+    @Benchmark
+    @Fork(1)
+    public SentenceLetterCounts scalarCountVowelsAndConsonantsOfCompactText() {
+        return TextOperation.countVowelsAndConsonantsBySentence(text);
+    }
+
+    private CharStatistics countChars() {
+        CharStatistics statistics = new CharStatistics();
+        statistics.add(chars, 0, chars.length);
+        return statistics;
+    }
+
+}
@@ -0,0 +1,83 @@
+package com.karzhou.parser.benchmark;
+
+import com.karzhou.parser.interpreter.InterpreterClient;
+import com.karzhou.parser.interpreter.MathExpression;
+import com.karzhou.parser.interpreter.PolishNotationInterpreter;
+import com.karzhou.parser.polishnotation.PolishNotationConverter;
+import com.karzhou.parser.service.ExpressionCache;
+import com.karzhou.parser.service.ExpressionConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ExpressionBenchmark {
+    private String text;
+    private List<String> expressions;
+    private List<String> polishNotations;
+    private ExpressionConverter expressionConverter;
+    private PolishNotationConverter polishNotationConverter;
+    private PolishNotationInterpreter interpreter;
+    private ExpressionCache expressionCache;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        text = BenchmarkCorpus.sampleText();
+        expressions = BenchmarkCorpus.expressions();
+        expressionConverter = new ExpressionConverter();
+        polishNotationConverter = new PolishNotationConverter();
+        interpreter = new PolishNotationInterpreter();
+        expressionCache = new ExpressionCache();
+
+        polishNotations = new ArrayList<>();
+        for (String expression : expressions) {
+            polishNotations.add(polishNotationConverter.calculatePolishNotation(expression));
+        }
+    }
+
+    @Benchmark
+    public String replaceExpressionsByNumber() {
+        return expressionConverter.replaceExpressionsByNumber(text);
+    }
+
+    @Benchmark
+    public void calculatePolishNotation(Blackhole blackhole) {
+        for (String expression : expressions) {
+            blackhole.consume(polishNotationConverter.calculatePolishNotation(expression));
+        }
+    }
+
+    @Benchmark
+    public void interpretPolishNotation(Blackhole blackhole) {
+        for (String polishNotation : polishNotations) {
+            List<MathExpression> mathExpressions = interpreter.parse(polishNotation);
+            blackhole.consume(new InterpreterClient().handleExpression(mathExpressions));
+        }
+    }
+
+    @Benchmark
+    public void evaluateCachedExpressions(Blackhole blackhole) {
+        for (String expression : expressions) {
+            blackhole.consume(expressionCache.evaluate(expression));
+        }
+    }
+
+}
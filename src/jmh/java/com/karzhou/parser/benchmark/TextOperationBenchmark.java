@@ -0,0 +1,134 @@
+package com.karzhou.parser.benchmark;
+
+import com.karzhou.parser.analysis.DuplicateWordsAnalysis;
+import com.karzhou.parser.analysis.LongestWordAnalysis;
+import com.karzhou.parser.analysis.ParagraphSortAnalysis;
+import com.karzhou.parser.analysis.SentenceLetterCounts;
+import com.karzhou.parser.analysis.ShortSentenceFilterAnalysis;
+import com.karzhou.parser.analysis.TextAnalyzer;
+import com.karzhou.parser.analysis.TopWordsAnalysis;
+import com.karzhou.parser.analysis.VowelsAndConsonantsAnalysis;
+import com.karzhou.parser.analysis.WordFrequency;
+import com.karzhou.parser.composite.impl.TextComponent;
+import com.karzhou.parser.parser.TextAllParser;
+import com.karzhou.parser.service.TextOperation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TextOperationBenchmark {
+    private static final String SEARCH_SYMBOL = "e";
+    private static final int MIN_WORDS_IN_SENTENCE = 3;
+    private static final int TOP_WORDS = 10;
+    private static final double TOP_WORDS_ERROR_BOUND = 0.001;
+
+    @Param({"1024", "1048576"})
+    private int corpusSize;
+
+    private TextComponent text;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        text = new TextAllParser().parse(BenchmarkCorpus.withNumbers(corpusSize));
+    }
+
+    @Benchmark
+    public TextComponent sortParagraphsByNumOFSentences() {
+        return TextOperation.sortParagraphsByNumOFSentences(text);
+    }
+
+    @Benchmark
+    public TextComponent sortByLengthOfWordsText() {
+        return TextOperation.sortByLengthOfWordsText(text);
+    }
+
+    @Benchmark
+    public TextComponent reverseSortLexemesByOrderSymbol() {
+        return TextOperation.reverseSortLexemesByOrderSymbol(text, SEARCH_SYMBOL);
+    }
+
+    @Benchmark
+    public List<TextComponent> findSentencesWithLongestWord() {
+        return TextOperation.findSentencesWithLongestWord(text);
+    }
+
+    @Benchmark
+    public TextComponent removeSentencesWithLessWords() {
+        return TextOperation.removeSentencesWithLessWords(text, MIN_WORDS_IN_SENTENCE);
+    }
+
+    @Benchmark
+    public Map<String, Integer> countDuplicateWords() {
+        return TextOperation.countDuplicateWords(text);
+    }
+
+    @Benchmark
+    public Map<String, Integer> countDuplicateWordsInParallel() {
+        return TextOperation.countDuplicateWords(text, ForkJoinPool.commonPool());
+    }
+
+    @Benchmark
+    public List<WordFrequency> findTopWords() {
+        TextAnalyzer analyzer = new TextAnalyzer();
+        TopWordsAnalysis topWords = analyzer.register(new TopWordsAnalysis(TOP_WORDS, TOP_WORDS_ERROR_BOUND));
+        analyzer.analyze(text);
+        return topWords.getResult();
+    }
+
+    @Benchmark
+    public Map<TextComponent, Map<String, Integer>> countVowelsAndConsonants() {
+        return TextOperation.countVowelsAndConsonants(text);
+    }
+
+    @Benchmark
+    public SentenceLetterCounts countVowelsAndConsonantsBySentence() {
+        return TextOperation.countVowelsAndConsonantsBySentence(text);
+    }
+
+    @Benchmark
+    public void reportSeparately(Blackhole blackhole) {
+        blackhole.consume(TextOperation.sortParagraphsByNumOFSentences(text));
+        blackhole.consume(TextOperation.findSentencesWithLongestWord(text));
+        blackhole.consume(TextOperation.removeSentencesWithLessWords(text, MIN_WORDS_IN_SENTENCE));
+        blackhole.consume(TextOperation.countDuplicateWords(text));
+        blackhole.consume(TextOperation.countVowelsAndConsonants(text));
+    }
+
+    @Benchmark
+    public void reportInOneTraversal(Blackhole blackhole) {
+        TextAnalyzer analyzer = new TextAnalyzer();
+        ParagraphSortAnalysis paragraphSort = analyzer.register(new ParagraphSortAnalysis());
+        LongestWordAnalysis longestWord = analyzer.register(new LongestWordAnalysis());
+        ShortSentenceFilterAnalysis sentenceFilter = analyzer.register(new ShortSentenceFilterAnalysis(MIN_WORDS_IN_SENTENCE));
+        DuplicateWordsAnalysis duplicates = analyzer.register(new DuplicateWordsAnalysis());
+        VowelsAndConsonantsAnalysis vowelsAndConsonants = analyzer.register(new VowelsAndConsonantsAnalysis());
+        analyzer.analyze(text);
+        blackhole.consume(paragraphSort.getResult());
+        blackhole.consume(longestWord.getResult());
+        blackhole.consume(sentenceFilter.getResult());
+        blackhole.consume(duplicates.getResult());
+        blackhole.consume(vowelsAndConsonants.getResult());
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.karzhou.parser.benchmark;
+
+import com.karzhou.parser.composite.impl.TextComponent;
+import com.karzhou.parser.composite.ComponentType;
+import com.karzhou.parser.parser.SubtreeInterner;
+import com.karzhou.parser.parser.TextAllParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx12g"})
+public class TextParserBenchmark {
+
+    @Param({"1024", "1048576", "104857600"})
+    private int corpusSize;
+
+    private String corpus;
+    private TextAllParser parser;
+    private TextAllParser internedParser;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        corpus = BenchmarkCorpus.withNumbers(corpusSize);
+        parser = new TextAllParser();
+        internedParser = new TextAllParser(null, null, new SubtreeInterner(ComponentType.SENTENCE));
+    }
+
+    @Benchmark
+    public TextComponent parse() {
+        return parser.parse(corpus);
+    }
+
+    @Benchmark
+    public TextComponent parseInterned() {
+        return internedParser.parse(corpus);
+    }
+
+}
@@ -1,8 +1,14 @@
 package com.karzhou.parser;
 
+import com.karzhou.parser.analysis.DuplicateWordsAnalysis;
+import com.karzhou.parser.analysis.LongestWordAnalysis;
+import com.karzhou.parser.analysis.ParagraphSortAnalysis;
+import com.karzhou.parser.analysis.ShortSentenceFilterAnalysis;
+import com.karzhou.parser.analysis.TextAnalyzer;
+import com.karzhou.parser.analysis.VowelsAndConsonantsAnalysis;
 import com.karzhou.parser.composite.impl.TextComponent;
+import com.karzhou.parser.metrics.ParseMetrics;
 import com.karzhou.parser.service.TextComponentCreator;
-import com.karzhou.parser.service.TextOperation;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -17,45 +23,57 @@ public class Main {
     public static void main(String[] args) {
         try {
             LOGGER.info("Starting text processing...");
+            ParseMetrics.registerMBean();
 
             LOGGER.info("Creating text component...");
             TextComponent textComponent = TextComponentCreator.create();
 
+            // Texts are passed as suppliers, so a tree is rendered only when its event is enabled.
             LOGGER.info("\n=== Original text ===");
-            LOGGER.info(textComponent.getTextMessage());
+            LOGGER.info("{}", textComponent::getTextMessage);
+
+            TextAnalyzer analyzer = new TextAnalyzer();
+            ParagraphSortAnalysis paragraphSort = analyzer.register(new ParagraphSortAnalysis());
+            LongestWordAnalysis longestWord = analyzer.register(new LongestWordAnalysis());
+            ShortSentenceFilterAnalysis sentenceFilter = analyzer.register(new ShortSentenceFilterAnalysis(MIN_WORDS_IN_SENTENCE));
+            DuplicateWordsAnalysis duplicates = analyzer.register(new DuplicateWordsAnalysis());
+            VowelsAndConsonantsAnalysis vowelsAndConsonantsAnalysis = analyzer.register(new VowelsAndConsonantsAnalysis());
+            analyzer.analyze(textComponent);
 
             LOGGER.info("\n=== Sorting paragraphs by number of sentences ===");
-            TextComponent sortedParagraphs = TextOperation.sortParagraphsByNumOFSentences(textComponent);
-            LOGGER.info(sortedParagraphs.getTextMessage());
+            TextComponent sortedParagraphs = paragraphSort.getResult();
+            LOGGER.info("{}", sortedParagraphs::getTextMessage);
 
             LOGGER.info("\n=== Finding sentences with longest word ===");
-            List<TextComponent> sentencesWithLongestWord = TextOperation.findSentencesWithLongestWord(textComponent);
+            List<TextComponent> sentencesWithLongestWord = longestWord.getResult();
             for (TextComponent sentence : sentencesWithLongestWord) {
-                LOGGER.info(sentence.getTextMessage());
+                LOGGER.info("{}", sentence::getTextMessage);
             }
 
-            LOGGER.info("\n=== Removing sentences with less than " + MIN_WORDS_IN_SENTENCE + " words ===");
-            TextComponent filteredText = TextOperation.removeSentencesWithLessWords(textComponent, MIN_WORDS_IN_SENTENCE);
-            LOGGER.info(filteredText.getTextMessage());
+            LOGGER.info("\n=== Removing sentences with less than {} words ===", MIN_WORDS_IN_SENTENCE);
+            TextComponent filteredText = sentenceFilter.getResult();
+            LOGGER.info("{}", filteredText::getTextMessage);
 
             LOGGER.info("\n=== Finding duplicate words ===");
-            Map<String, Integer> duplicateWords = TextOperation.countDuplicateWords(textComponent);
+            Map<String, Integer> duplicateWords = duplicates.getResult();
             for (Map.Entry<String, Integer> entry : duplicateWords.entrySet()) {
-                LOGGER.info("Word: '" + entry.getKey() + "' appears " + entry.getValue() + " times");
+                LOGGER.info("Word: '{}' appears {} times", entry.getKey(), entry.getValue());
             }
 
             LOGGER.info("\n=== Counting vowels and consonants in sentences ===");
-            Map<TextComponent, Map<String, Integer>> vowelsAndConsonants = TextOperation.countVowelsAndConsonants(textComponent);
+            Map<TextComponent, Map<String, Integer>> vowelsAndConsonants = vowelsAndConsonantsAnalysis.getResult();
             for (Map.Entry<TextComponent, Map<String, Integer>> entry : vowelsAndConsonants.entrySet()) {
-                LOGGER.info("Sentence: " + entry.getKey().getTextMessage());
-                LOGGER.info("Vowels: " + entry.getValue().get("vowels") + 
-                          ", Consonants: " + entry.getValue().get("consonants"));
+                LOGGER.info("Sentence: {}", entry.getKey()::getTextMessage);
+                LOGGER.info("Vowels: {}, Consonants: {}", entry.getValue().get("vowels"), entry.getValue().get("consonants"));
             }
             
+            LOGGER.info("\n=== Parse metrics ===");
+            LOGGER.info(ParseMetrics.getInstance());
+
             LOGGER.info("\nText processing completed successfully!");
             
         } catch (Exception e) {
-            LOGGER.error("Error occurred while processing text: " + e.getMessage());
+            LOGGER.error("Error occurred while processing text: {}", e.getMessage());
             LOGGER.error("Stack trace:", e);
             System.exit(1);
         }
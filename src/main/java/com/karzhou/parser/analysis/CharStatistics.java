@@ -0,0 +1,150 @@
+package com.karzhou.parser.analysis;
+
+/**
+ * Counts vowels, consonants, digits and punctuation of chars. When the {@code jdk.incubator.vector}
+ * module is in the boot layer (the JVM runs with {@code --add-modules jdk.incubator.vector}), bulk
+ * adds classify a whole vector of chars by a few lane-wise compares; single chars, ranges shorter
+ * than a vector, the tail of a range, vectors with non-ASCII chars and every char of a JVM without
+ * the module are classified one by one through a lookup table. Either way the rule of
+ * {@code TextOperation.countVowelsAndConsonants} holds: a char is a letter if its lower case is one,
+ * and a vowel if that lower case is one of {@code aeiouy}.
+ */
+public class CharStatistics {
+    static final int OTHER = 0;
+    static final int VOWEL = 1;
+    static final int CONSONANT = 2;
+    static final int DIGIT = 3;
+    static final int PUNCTUATION = 4;
+    private static final int CLASSES = 5;
+    private static final String VOWELS = "aeiouy";
+    private static final String ASCII_PUNCTUATION = "!\"#$%&'()*+,-./:;<=>?@[\\]^_`{|}~";
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final int BUFFER_SIZE = 512;
+    private static final byte[] ASCII_CLASSES = new byte[128];
+    private static final boolean VECTORIZED;
+    private static final int VECTOR_LENGTH;
+
+    static {
+        for (char c = 0; c < ASCII_CLASSES.length; c++) {
+            ASCII_CLASSES[c] = (byte) classify(c);
+        }
+        for (char c : ASCII_PUNCTUATION.toCharArray()) {
+            ASCII_CLASSES[c] = PUNCTUATION;
+        }
+        VECTORIZED = isVectorApiAvailable();
+        VECTOR_LENGTH = VECTORIZED ? VectorCharStatistics.length() : Integer.MAX_VALUE;
+    }
+
+    private final long[] counts = new long[CLASSES];
+    private char[] buffer;
+
+    /**
+     * @return whether bulk counting uses the Vector API in this JVM
+     */
+    public static boolean isVectorized() {
+        return VECTORIZED;
+    }
+
+    public void add(char c) {
+        counts[classOf(c)]++;
+    }
+
+    public void add(CharSequence chars) {
+        add(chars, 0, chars.length());
+    }
+
+    public void add(CharSequence chars, int from, int to) {
+        if (to - from < VECTOR_LENGTH) {
+            for (int i = from; i < to; i++) {
+                counts[classOf(chars.charAt(i))]++;
+            }
+            return;
+        }
+        if (buffer == null) {
+            buffer = new char[BUFFER_SIZE];
+        }
+        while (from < to) {
+            int length = Math.min(to - from, buffer.length);
+            if (chars instanceof String) {
+                ((String) chars).getChars(from, from + length, buffer, 0);
+            }
+            else {
+                for (int i = 0; i < length; i++) {
+                    buffer[i] = chars.charAt(from + i);
+                }
+            }
+            add(buffer, 0, length);
+            from += length;
+        }
+    }
+
+    public void add(char[] chars, int from, int to) {
+        // A range shorter than a vector, such as a single word, isn't worth setting up the vector loop.
+        int scalarFrom = to - from >= VECTOR_LENGTH ? VectorCharStatistics.count(chars, from, to, counts) : from;
+        for (int i = scalarFrom; i < to; i++) {
+            counts[classOf(chars[i])]++;
+        }
+    }
+
+    public void add(CharStatistics other) {
+        for (int i = 0; i < CLASSES; i++) {
+            counts[i] += other.counts[i];
+        }
+    }
+
+    public long getVowels() {
+        return counts[VOWEL];
+    }
+    public long getConsonants() {
+        return counts[CONSONANT];
+    }
+    public long getDigits() {
+        return counts[DIGIT];
+    }
+    public long getPunctuation() {
+        return counts[PUNCTUATION];
+    }
+    public long getOther() {
+        return counts[OTHER];
+    }
+
+    public void reset() {
+        for (int i = 0; i < CLASSES; i++) {
+            counts[i] = 0;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CharStatistics{vowels=" + getVowels() + ", consonants=" + getConsonants() + ", digits=" + getDigits()
+                + ", punctuation=" + getPunctuation() + ", other=" + getOther() + "}";
+    }
+
+    static int classOf(char c) {
+        return c < ASCII_CLASSES.length ? ASCII_CLASSES[c] : classify(c);
+    }
+
+    private static int classify(char c) {
+        char lowerCase = Character.toLowerCase(c);
+        if (Character.isLetter(lowerCase)) {
+            return VOWELS.indexOf(lowerCase) >= 0 ? VOWEL : CONSONANT;
+        }
+        if (Character.isDigit(c)) {
+            return DIGIT;
+        }
+        return OTHER;
+    }
+
+    // VectorCharStatistics is loaded only when its module is there, so no consumer needs a JVM flag.
+    private static boolean isVectorApiAvailable() {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            return false;
+        }
+        try {
+            return VectorCharStatistics.isSupported();
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+
+}
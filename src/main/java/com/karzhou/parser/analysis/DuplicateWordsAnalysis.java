@@ -0,0 +1,24 @@
+package com.karzhou.parser.analysis;
+
+import com.karzhou.parser.composite.impl.TextComponent;
+
+import java.util.Map;
+
+/**
+ * Same result as {@code TextOperation.countDuplicateWords}.
+ */
+public class DuplicateWordsAnalysis implements TextAnalysis<Map<String, Integer>> {
+    private static final int MIN_DUPLICATE_COUNT = 2;
+    private final WordCounter wordCounter = new WordCounter();
+
+    @Override
+    public void word(TextComponent word) {
+        wordCounter.add(word);
+    }
+
+    @Override
+    public Map<String, Integer> getResult() {
+        return wordCounter.toMap(MIN_DUPLICATE_COUNT);
+    }
+
+}
@@ -0,0 +1,147 @@
+package com.karzhou.parser.analysis;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving sketch of case-insensitive word frequencies in fixed memory.
+ * At most {@code capacity} words are monitored; when a new word arrives and the sketch
+ * is full, it takes over the slot of the least frequent word and inherits its count
+ * as the error. Every estimate overshoots the real frequency by at most
+ * {@code total / capacity}, and every word seen more often than that is monitored.
+ */
+public class HeavyHitterSketch {
+    private final int capacity;
+    private final Map<String, Counter> counters;
+    private final Counter[] heap;
+    private int size;
+    private long total;
+
+    public HeavyHitterSketch(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+        this.heap = new Counter[capacity];
+    }
+
+    /**
+     * Sketch whose estimates are off by at most {@code errorBound * total} words.
+     */
+    public static HeavyHitterSketch withErrorBound(double errorBound) {
+        if (!(errorBound > 0 && errorBound <= 1)) {
+            throw new IllegalArgumentException("Error bound must be in (0, 1]: " + errorBound);
+        }
+        return new HeavyHitterSketch((int) Math.ceil(1 / errorBound));
+    }
+
+    public void add(CharSequence word) {
+        String key = word.toString().toLowerCase();
+        total++;
+
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            counter.count++;
+            siftDown(counter.heapIndex);
+            return;
+        }
+
+        if (size < capacity) {
+            counter = new Counter(key, 1, 0);
+            counter.heapIndex = size;
+            heap[size++] = counter;
+            counters.put(key, counter);
+            siftUp(counter.heapIndex);
+            return;
+        }
+
+        counter = heap[0];
+        counters.remove(counter.word);
+        counter.word = key;
+        counter.error = counter.count;
+        counter.count++;
+        counters.put(key, counter);
+        siftDown(0);
+    }
+
+    /**
+     * Up to {@code limit} most frequent words, most frequent first; ties are ordered by word.
+     */
+    public List<WordFrequency> topWords(int limit) {
+        List<WordFrequency> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(new WordFrequency(heap[i].word, heap[i].count, heap[i].error));
+        }
+        result.sort(Comparator.comparingLong(WordFrequency::getCount).reversed()
+                .thenComparing(WordFrequency::getWord));
+        return result.size() > limit ? new ArrayList<>(result.subList(0, Math.max(0, limit))) : result;
+    }
+
+    public long estimate(CharSequence word) {
+        Counter counter = counters.get(word.toString().toLowerCase());
+        return counter == null ? 0 : counter.count;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+    public long getTotal() {
+        return total;
+    }
+    public long getMaxError() {
+        return size < capacity ? 0 : heap[0].count;
+    }
+
+    private void siftUp(int index) {
+        Counter counter = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent].count <= counter.count) {
+                break;
+            }
+            place(heap[parent], index);
+            index = parent;
+        }
+        place(counter, index);
+    }
+
+    private void siftDown(int index) {
+        Counter counter = heap[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            if (child + 1 < size && heap[child + 1].count < heap[child].count) {
+                child++;
+            }
+            if (counter.count <= heap[child].count) {
+                break;
+            }
+            place(heap[child], index);
+            index = child;
+        }
+        place(counter, index);
+    }
+
+    private void place(Counter counter, int index) {
+        heap[index] = counter;
+        counter.heapIndex = index;
+    }
+
+    private static final class Counter {
+        private String word;
+        private long count;
+        private long error;
+        private int heapIndex;
+
+        private Counter(String word, long count, long error) {
+            this.word = word;
+            this.count = count;
+            this.error = error;
+        }
+    }
+
+}
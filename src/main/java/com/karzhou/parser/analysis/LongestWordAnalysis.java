@@ -0,0 +1,51 @@
+package com.karzhou.parser.analysis;
+
+import com.karzhou.parser.composite.impl.TextComponent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Same result as {@code TextOperation.findSentencesWithLongestWord}: candidates are
+ * dropped as soon as a longer word shows up, so one pass is enough.
+ */
+public class LongestWordAnalysis implements TextAnalysis<List<TextComponent>> {
+    private final List<TextComponent> sentences = new ArrayList<>();
+    private int maxWordLength;
+    private int sentenceMaxWordLength;
+    private boolean sentenceHasWords;
+
+    @Override
+    public void startSentence(TextComponent sentence) {
+        sentenceMaxWordLength = 0;
+        sentenceHasWords = false;
+    }
+
+    @Override
+    public void word(TextComponent word) {
+        sentenceHasWords = true;
+        sentenceMaxWordLength = Math.max(sentenceMaxWordLength, word.getLetterCount());
+    }
+
+    @Override
+    public void endSentence(TextComponent sentence) {
+        if (!sentenceHasWords || sentenceMaxWordLength < maxWordLength) {
+            return;
+        }
+        if (sentenceMaxWordLength > maxWordLength) {
+            maxWordLength = sentenceMaxWordLength;
+            sentences.clear();
+        }
+        sentences.add(sentence);
+    }
+
+    public int getMaxWordLength() {
+        return maxWordLength;
+    }
+
+    @Override
+    public List<TextComponent> getResult() {
+        return sentences;
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.karzhou.parser.analysis;
+
+import com.karzhou.parser.composite.ComponentType;
+import com.karzhou.parser.composite.impl.TextComponent;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Same result as {@code TextOperation.sortParagraphsByNumOFSentences}.
+ */
+public class ParagraphSortAnalysis implements TextAnalysis<TextComponent> {
+    private final List<TextComponent> paragraphs = new ArrayList<>();
+
+    @Override
+    public void startParagraph(TextComponent paragraph) {
+        paragraphs.add(paragraph);
+    }
+
+    @Override
+    public TextComponent getResult() {
+        TextComponent result = new TextComponent(ComponentType.TEXT);
+        paragraphs.stream()
+                .sorted(Comparator.comparingInt(TextComponent::getComponentsSize))
+                .forEach(result::addComponent);
+        return result;
+    }
+
+}
@@ -0,0 +1,120 @@
+package com.karzhou.parser.analysis;
+
+import com.karzhou.parser.composite.CommonText;
+import com.karzhou.parser.composite.impl.TextComponent;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Character classes of the words of each sentence kept in columns: sentence {@code i} of the text
+ * (in document order) has {@code getVowels(i)} vowels, {@code getConsonants(i)} consonants and so on.
+ * Lookup by sentence uses identity, so sentences are never hashed by their content.
+ */
+public class SentenceLetterCounts {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int NOT_FOUND = -1;
+
+    private CommonText[] sentences = new CommonText[INITIAL_CAPACITY];
+    private int[] vowels = new int[INITIAL_CAPACITY];
+    private int[] consonants = new int[INITIAL_CAPACITY];
+    private int[] digits = new int[INITIAL_CAPACITY];
+    private int[] punctuation = new int[INITIAL_CAPACITY];
+    private int size;
+    private IdentityHashMap<CommonText, Integer> indexes;
+
+    public int add(CommonText sentence, CharStatistics statistics) {
+        if (size == sentences.length) {
+            int capacity = size * 2;
+            sentences = Arrays.copyOf(sentences, capacity);
+            vowels = Arrays.copyOf(vowels, capacity);
+            consonants = Arrays.copyOf(consonants, capacity);
+            digits = Arrays.copyOf(digits, capacity);
+            punctuation = Arrays.copyOf(punctuation, capacity);
+        }
+        sentences[size] = sentence;
+        vowels[size] = (int) statistics.getVowels();
+        consonants[size] = (int) statistics.getConsonants();
+        digits[size] = (int) statistics.getDigits();
+        punctuation[size] = (int) statistics.getPunctuation();
+        indexes = null;
+        return size++;
+    }
+
+    public int size() {
+        return size;
+    }
+    public CommonText getSentence(int index) {
+        return sentences[checkIndex(index)];
+    }
+    public int getVowels(int index) {
+        return vowels[checkIndex(index)];
+    }
+    public int getConsonants(int index) {
+        return consonants[checkIndex(index)];
+    }
+    public int getDigits(int index) {
+        return digits[checkIndex(index)];
+    }
+    /**
+     * Signs inside the words of the sentence, such as {@code -} or {@code '}.
+     */
+    public int getPunctuation(int index) {
+        return punctuation[checkIndex(index)];
+    }
+
+    /**
+     * @return index of this very sentence instance, or -1; the identity index is built on first use
+     */
+    public int indexOf(CommonText sentence) {
+        if (indexes == null) {
+            indexes = new IdentityHashMap<>(size);
+            for (int i = 0; i < size; i++) {
+                indexes.putIfAbsent(sentences[i], i);
+            }
+        }
+        Integer index = indexes.get(sentence);
+        return index == null ? NOT_FOUND : index;
+    }
+
+    public int[] getVowels() {
+        return Arrays.copyOf(vowels, size);
+    }
+    public int[] getConsonants() {
+        return Arrays.copyOf(consonants, size);
+    }
+    public int[] getDigits() {
+        return Arrays.copyOf(digits, size);
+    }
+    public int[] getPunctuation() {
+        return Arrays.copyOf(punctuation, size);
+    }
+
+    /**
+     * Same shape as {@code TextOperation.countVowelsAndConsonants}: equal sentences share one entry,
+     * the last one wins.
+     */
+    public Map<TextComponent, Map<String, Integer>> toMap() {
+        Map<TextComponent, Map<String, Integer>> result = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            if (!(sentences[i] instanceof TextComponent)) {
+                throw new UnsupportedOperationException("Only TextComponent sentences can be map keys: " + sentences[i].getClass());
+            }
+            Map<String, Integer> counts = new HashMap<>();
+            counts.put("vowels", vowels[i]);
+            counts.put("consonants", consonants[i]);
+            result.put((TextComponent) sentences[i], counts);
+        }
+        return result;
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        return index;
+    }
+
+}
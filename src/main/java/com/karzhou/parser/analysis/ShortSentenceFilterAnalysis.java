@@ -0,0 +1,57 @@
+package com.karzhou.parser.analysis;
+
+import com.karzhou.parser.composite.ComponentType;
+import com.karzhou.parser.composite.impl.TextComponent;
+
+/**
+ * Same result as {@code TextOperation.removeSentencesWithLessWords}.
+ */
+public class ShortSentenceFilterAnalysis implements TextAnalysis<TextComponent> {
+    private final TextComponent result = new TextComponent(ComponentType.TEXT);
+    private final int minWords;
+    private TextComponent resultParagraph;
+    private int sentenceWords;
+
+    public ShortSentenceFilterAnalysis(int minWords) {
+        this.minWords = minWords;
+    }
+
+    @Override
+    public void startParagraph(TextComponent paragraph) {
+        resultParagraph = new TextComponent(ComponentType.PARAGRAPH);
+    }
+
+    @Override
+    public void startSentence(TextComponent sentence) {
+        sentenceWords = 0;
+    }
+
+    @Override
+    public void word(TextComponent word) {
+        sentenceWords++;
+    }
+
+    @Override
+    public void endSentence(TextComponent sentence) {
+        if (sentenceWords >= minWords) {
+            resultParagraph.addComponent(sentence);
+        }
+    }
+
+    @Override
+    public void endParagraph(TextComponent paragraph) {
+        if (resultParagraph.getComponentsSize() > 0) {
+            result.addComponent(resultParagraph);
+        }
+    }
+
+    public int getMinWords() {
+        return minWords;
+    }
+
+    @Override
+    public TextComponent getResult() {
+        return result;
+    }
+
+}
@@ -0,0 +1,20 @@
+package com.karzhou.parser.analysis;
+
+import com.karzhou.parser.composite.CommonText;
+import com.karzhou.parser.composite.impl.TextComponent;
+
+/**
+ * One query run by {@link TextAnalyzer}. Callbacks arrive in document order during
+ * a single traversal; an analysis overrides only the levels it needs.
+ */
+public interface TextAnalysis<R> {
+
+    default void startParagraph(TextComponent paragraph) { }
+    default void startSentence(TextComponent sentence) { }
+    default void lexeme(CommonText lexeme) { }
+    default void word(TextComponent word) { }
+    default void endSentence(TextComponent sentence) { }
+    default void endParagraph(TextComponent paragraph) { }
+    R getResult();
+
+}
@@ -0,0 +1,61 @@
+package com.karzhou.parser.analysis;
+
+import com.karzhou.parser.composite.CommonText;
+import com.karzhou.parser.composite.ComponentType;
+import com.karzhou.parser.composite.impl.TextComponent;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs every registered {@link TextAnalysis} in one paragraph -> sentence -> lexeme -> word
+ * traversal of the text instead of one traversal per query.
+ */
+public class TextAnalyzer {
+    private static final Logger LOGGER = LogManager.getLogger(TextAnalyzer.class);
+    private final List<TextAnalysis<?>> analyses = new ArrayList<>();
+
+    public <A extends TextAnalysis<?>> A register(A analysis) {
+        analyses.add(analysis);
+        return analysis;
+    }
+
+    public void analyze(TextComponent text) {
+        if (text == null) {
+            LOGGER.error("text can't be null");
+            return;
+        }
+
+        for (int i = 0; i < text.getComponentsSize(); i++) {
+            TextComponent paragraph = (TextComponent) text.getComponent(i);
+            analyses.forEach(o -> o.startParagraph(paragraph));
+
+            for (int j = 0; j < paragraph.getComponentsSize(); j++) {
+                TextComponent sentence = (TextComponent) paragraph.getComponent(j);
+                analyses.forEach(o -> o.startSentence(sentence));
+
+                for (int k = 0; k < sentence.getComponentsSize(); k++) {
+                    CommonText lexeme = sentence.getComponent(k);
+                    analyses.forEach(o -> o.lexeme(lexeme));
+                    for (int l = 0; l < lexeme.getComponentsSize(); l++) {
+                        CommonText child = lexeme.getComponent(l);
+                        if (child instanceof TextComponent && child.getTypeOfTextComponent() == ComponentType.WORD) {
+                            for (TextAnalysis<?> analysis : analyses) {
+                                analysis.word((TextComponent) child);
+                            }
+                        }
+                    }
+                }
+
+                analyses.forEach(o -> o.endSentence(sentence));
+            }
+
+            analyses.forEach(o -> o.endParagraph(paragraph));
+        }
+
+        LOGGER.info("{} analyses were run in one traversal", analyses.size());
+    }
+
+}
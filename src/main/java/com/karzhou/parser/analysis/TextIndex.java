@@ -0,0 +1,151 @@
+package com.karzhou.parser.analysis;
+
+import com.karzhou.parser.composite.CaseFolding;
+import com.karzhou.parser.composite.CommonText;
+import com.karzhou.parser.composite.impl.TextComponent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only index of a parsed text: sentences and lexemes numbered in document order,
+ * word postings, case-insensitive per-lexeme char histograms and per-sentence word columns.
+ * Queries are answered from the index without walking the tree. The index is built by
+ * {@link TextIndexAnalysis} and doesn't follow later changes of the tree.
+ */
+public class TextIndex {
+    private static final int[] NO_POSTINGS = new int[0];
+    private final List<TextComponent> sentences;
+    private final int[] sentenceParagraphs;
+    private final int[] sentenceWordCounts;
+    private final int[] sentenceMaxWordLengths;
+    private final List<CommonText> lexemes;
+    private final int[] lexemeSentences;
+    private final int[] histogramOffsets;
+    private final char[] histogramChars;
+    private final int[] histogramCounts;
+    private final Map<String, int[]> wordSentences;
+    private final int maxWordLength;
+
+    TextIndex(List<TextComponent> sentences, int[] sentenceParagraphs, int[] sentenceWordCounts,
+              int[] sentenceMaxWordLengths, List<CommonText> lexemes, int[] lexemeSentences,
+              int[] histogramOffsets, char[] histogramChars, int[] histogramCounts,
+              Map<String, int[]> wordSentences) {
+        this.sentences = sentences;
+        this.sentenceParagraphs = sentenceParagraphs;
+        this.sentenceWordCounts = sentenceWordCounts;
+        this.sentenceMaxWordLengths = sentenceMaxWordLengths;
+        this.lexemes = lexemes;
+        this.lexemeSentences = lexemeSentences;
+        this.histogramOffsets = histogramOffsets;
+        this.histogramChars = histogramChars;
+        this.histogramCounts = histogramCounts;
+        this.wordSentences = wordSentences;
+        this.maxWordLength = Arrays.stream(sentenceMaxWordLengths).max().orElse(0);
+    }
+
+    public static TextIndex build(TextComponent text) {
+        TextAnalyzer analyzer = new TextAnalyzer();
+        TextIndexAnalysis index = analyzer.register(new TextIndexAnalysis());
+        analyzer.analyze(text);
+        return index.getResult();
+    }
+
+    public int getSentenceCount() {
+        return sentences.size();
+    }
+    public TextComponent getSentence(int sentence) {
+        return sentences.get(sentence);
+    }
+    public int getSentenceParagraph(int sentence) {
+        return sentenceParagraphs[sentence];
+    }
+    public int getSentenceWordCount(int sentence) {
+        return sentenceWordCounts[sentence];
+    }
+    public int getSentenceMaxWordLength(int sentence) {
+        return sentenceMaxWordLengths[sentence];
+    }
+
+    public int getLexemeCount() {
+        return lexemes.size();
+    }
+    public CommonText getLexeme(int lexeme) {
+        return lexemes.get(lexeme);
+    }
+    public int getLexemeSentence(int lexeme) {
+        return lexemeSentences[lexeme];
+    }
+
+    /**
+     * Same as {@code getLexeme(lexeme).countOfOrderedSymbol(String.valueOf(symbol))}.
+     */
+    public int countOfSymbol(int lexeme, char symbol) {
+        int from = histogramOffsets[lexeme];
+        int to = histogramOffsets[lexeme + 1];
+        int position = Arrays.binarySearch(histogramChars, from, to, CaseFolding.fold(symbol));
+        return position >= 0 ? histogramCounts[position] : 0;
+    }
+
+    /**
+     * Indexes of the sentences that contain the word (case-insensitive), in document order.
+     */
+    public int[] findSentencesWithWord(String word) {
+        return wordSentences.getOrDefault(word.toLowerCase(), NO_POSTINGS).clone();
+    }
+
+    /**
+     * Indexes of the paragraphs that contain the word (case-insensitive), in document order.
+     */
+    public int[] findParagraphsWithWord(String word) {
+        return Arrays.stream(wordSentences.getOrDefault(word.toLowerCase(), NO_POSTINGS))
+                .map(o -> sentenceParagraphs[o])
+                .distinct()
+                .toArray();
+    }
+
+    /**
+     * Lexemes that contain the symbol, most occurrences first; equal lexemes keep the document order.
+     */
+    public List<CommonText> rankLexemesBySymbol(char symbol) {
+        List<long[]> ranked = new ArrayList<>();
+        for (int i = 0; i < lexemes.size(); i++) {
+            int count = countOfSymbol(i, symbol);
+            if (count > 0) {
+                ranked.add(new long[]{count, i});
+            }
+        }
+        ranked.sort((o1, o2) -> Long.compare(o2[0], o1[0]));
+
+        List<CommonText> result = new ArrayList<>(ranked.size());
+        for (long[] lexeme : ranked) {
+            result.add(lexemes.get((int) lexeme[1]));
+        }
+        return result;
+    }
+
+    /**
+     * Same result as {@code TextOperation.findSentencesWithLongestWord}.
+     */
+    public List<TextComponent> findSentencesWithLongestWord() {
+        List<TextComponent> result = new ArrayList<>();
+        for (int i = 0; i < sentences.size(); i++) {
+            if (sentenceWordCounts[i] > 0 && sentenceMaxWordLengths[i] == maxWordLength) {
+                result.add(sentences.get(i));
+            }
+        }
+        return result;
+    }
+
+    public int getMaxWordLength() {
+        return maxWordLength;
+    }
+
+    public List<TextComponent> getSentences() {
+        return Collections.unmodifiableList(sentences);
+    }
+
+}
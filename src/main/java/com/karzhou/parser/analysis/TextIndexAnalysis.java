@@ -0,0 +1,126 @@
+package com.karzhou.parser.analysis;
+
+import com.karzhou.parser.composite.CaseFolding;
+import com.karzhou.parser.composite.CommonText;
+import com.karzhou.parser.composite.impl.TextComponent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds a {@link TextIndex}; can be registered next to other analyses
+ * to index the text in the same traversal.
+ */
+public class TextIndexAnalysis implements TextAnalysis<TextIndex> {
+    private static final int INITIAL_SIZE = 64;
+    private final List<TextComponent> sentences = new ArrayList<>();
+    private final List<CommonText> lexemes = new ArrayList<>();
+    private final Map<String, Postings> wordSentences = new HashMap<>();
+    private int[] sentenceParagraphs = new int[INITIAL_SIZE];
+    private int[] sentenceWordCounts = new int[INITIAL_SIZE];
+    private int[] sentenceMaxWordLengths = new int[INITIAL_SIZE];
+    private int[] lexemeSentences = new int[INITIAL_SIZE];
+    private int[] histogramOffsets = new int[INITIAL_SIZE];
+    private char[] histogramChars = new char[INITIAL_SIZE];
+    private int[] histogramCounts = new int[INITIAL_SIZE];
+    private int histogramSize;
+    private int paragraph = -1;
+    private int sentence = -1;
+    private TextIndex result;
+
+    @Override
+    public void startParagraph(TextComponent paragraph) {
+        this.paragraph++;
+    }
+
+    @Override
+    public void startSentence(TextComponent sentence) {
+        this.sentence++;
+        sentences.add(sentence);
+        if (this.sentence == sentenceParagraphs.length) {
+            sentenceParagraphs = Arrays.copyOf(sentenceParagraphs, this.sentence * 2);
+            sentenceWordCounts = Arrays.copyOf(sentenceWordCounts, this.sentence * 2);
+            sentenceMaxWordLengths = Arrays.copyOf(sentenceMaxWordLengths, this.sentence * 2);
+        }
+        sentenceParagraphs[this.sentence] = paragraph;
+    }
+
+    @Override
+    public void lexeme(CommonText lexeme) {
+        int index = lexemes.size();
+        lexemes.add(lexeme);
+        if (index + 1 >= lexemeSentences.length) {
+            lexemeSentences = Arrays.copyOf(lexemeSentences, lexemeSentences.length * 2);
+            histogramOffsets = Arrays.copyOf(histogramOffsets, histogramOffsets.length * 2);
+        }
+        lexemeSentences[index] = sentence;
+        histogramOffsets[index] = histogramSize;
+
+        char[] chars = lexeme.getTextMessage().toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = CaseFolding.fold(chars[i]);
+        }
+        Arrays.sort(chars);
+        for (int i = 0; i < chars.length; ) {
+            int end = i + 1;
+            while (end < chars.length && chars[end] == chars[i]) {
+                end++;
+            }
+            if (histogramSize == histogramChars.length) {
+                histogramChars = Arrays.copyOf(histogramChars, histogramSize * 2);
+                histogramCounts = Arrays.copyOf(histogramCounts, histogramSize * 2);
+            }
+            histogramChars[histogramSize] = chars[i];
+            histogramCounts[histogramSize++] = end - i;
+            i = end;
+        }
+        histogramOffsets[index + 1] = histogramSize;
+    }
+
+    @Override
+    public void word(TextComponent word) {
+        sentenceWordCounts[sentence]++;
+        sentenceMaxWordLengths[sentence] = Math.max(sentenceMaxWordLengths[sentence], word.getLetterCount());
+
+        wordSentences.computeIfAbsent(word.getTextMessage().toLowerCase(), o -> new Postings()).add(sentence);
+    }
+
+    @Override
+    public TextIndex getResult() {
+        if (result == null) {
+            int sentenceCount = sentence + 1;
+            int lexemeCount = lexemes.size();
+            Map<String, int[]> postings = new HashMap<>();
+            wordSentences.forEach((word, sentences) -> postings.put(word, sentences.toArray()));
+            result = new TextIndex(sentences, Arrays.copyOf(sentenceParagraphs, sentenceCount),
+                    Arrays.copyOf(sentenceWordCounts, sentenceCount), Arrays.copyOf(sentenceMaxWordLengths, sentenceCount),
+                    lexemes, Arrays.copyOf(lexemeSentences, lexemeCount), Arrays.copyOf(histogramOffsets, lexemeCount + 1),
+                    Arrays.copyOf(histogramChars, histogramSize), Arrays.copyOf(histogramCounts, histogramSize),
+                    postings);
+        }
+        return result;
+    }
+
+    private static final class Postings {
+        private int[] sentences = new int[1];
+        private int size;
+
+        private void add(int sentence) {
+            if (size > 0 && sentences[size - 1] == sentence) {
+                return;
+            }
+            if (size == sentences.length) {
+                sentences = Arrays.copyOf(sentences, size * 2);
+            }
+            sentences[size++] = sentence;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(sentences, size);
+        }
+    }
+
+}
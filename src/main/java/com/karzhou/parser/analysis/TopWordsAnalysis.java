@@ -0,0 +1,36 @@
+package com.karzhou.parser.analysis;
+
+import com.karzhou.parser.composite.impl.TextComponent;
+
+import java.util.List;
+
+/**
+ * Most frequent words of the text in fixed memory, see {@link HeavyHitterSketch}.
+ */
+public class TopWordsAnalysis implements TextAnalysis<List<WordFrequency>> {
+    private final HeavyHitterSketch sketch;
+    private final int limit;
+
+    public TopWordsAnalysis(int limit, double errorBound) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit can't be negative: " + limit);
+        }
+        this.sketch = HeavyHitterSketch.withErrorBound(errorBound);
+        this.limit = limit;
+    }
+
+    @Override
+    public void word(TextComponent word) {
+        sketch.add(word.getTextMessage());
+    }
+
+    public HeavyHitterSketch getSketch() {
+        return sketch;
+    }
+
+    @Override
+    public List<WordFrequency> getResult() {
+        return sketch.topWords(limit);
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.karzhou.parser.analysis;
+
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API path of {@link CharStatistics}: chars are loaded as {@code short} lanes and an
+ * all-ASCII vector is classified by lane-wise compares. {@code c | 0x20} maps exactly the ASCII
+ * letters into {@code a..z}, so letters and vowels need no case conversion, and punctuation is
+ * every visible ASCII char that is neither a letter nor a digit. A vector with a non-ASCII char
+ * is classified char by char.
+ * <p>
+ * Only {@link CharStatistics} refers to this class, and only when {@code jdk.incubator.vector}
+ * is in the boot layer.
+ */
+final class VectorCharStatistics {
+    private static final VectorSpecies<Short> SPECIES = ShortVector.SPECIES_PREFERRED;
+    private static final int MIN_LANES = 8;
+    private static final short NON_ASCII_BITS = (short) 0xFF80;
+    private static final short LOWER_CASE_BIT = 0x20;
+    private static final short DELETE = 0x7F;
+
+    private VectorCharStatistics() {
+    }
+
+    static boolean isSupported() {
+        return SPECIES.length() >= MIN_LANES;
+    }
+
+    static int length() {
+        return SPECIES.length();
+    }
+
+    /**
+     * Adds the classes of the chars of all whole vectors in {@code [from, to)} to the counts.
+     *
+     * @return index of the first char that wasn't counted; fewer than one vector of chars are left
+     */
+    static int count(char[] chars, int from, int to, long[] counts) {
+        int lanes = SPECIES.length();
+        int bound = from + SPECIES.loopBound(to - from);
+        long vectorChars = 0;
+        long letters = 0;
+        long vowels = 0;
+        long digits = 0;
+        long visible = 0;
+
+        for (int i = from; i < bound; i += lanes) {
+            ShortVector vector = ShortVector.fromCharArray(SPECIES, chars, i);
+            if (vector.lanewise(VectorOperators.AND, NON_ASCII_BITS).compare(VectorOperators.NE, (short) 0).anyTrue()) {
+                for (int j = i; j < i + lanes; j++) {
+                    counts[CharStatistics.classOf(chars[j])]++;
+                }
+                continue;
+            }
+
+            ShortVector lowerCase = vector.lanewise(VectorOperators.OR, LOWER_CASE_BIT);
+            VectorMask<Short> letter = lowerCase.compare(VectorOperators.GE, (short) 'a')
+                    .and(lowerCase.compare(VectorOperators.LE, (short) 'z'));
+            VectorMask<Short> vowel = lowerCase.compare(VectorOperators.EQ, (short) 'a')
+                    .or(lowerCase.compare(VectorOperators.EQ, (short) 'e'))
+                    .or(lowerCase.compare(VectorOperators.EQ, (short) 'i'))
+                    .or(lowerCase.compare(VectorOperators.EQ, (short) 'o'))
+                    .or(lowerCase.compare(VectorOperators.EQ, (short) 'u'))
+                    .or(lowerCase.compare(VectorOperators.EQ, (short) 'y'));
+            VectorMask<Short> digit = vector.compare(VectorOperators.GE, (short) '0')
+                    .and(vector.compare(VectorOperators.LE, (short) '9'));
+            VectorMask<Short> visibleChar = vector.compare(VectorOperators.GT, (short) ' ')
+                    .and(vector.compare(VectorOperators.LT, DELETE));
+
+            vectorChars += lanes;
+            letters += letter.trueCount();
+            vowels += vowel.trueCount();
+            digits += digit.trueCount();
+            visible += visibleChar.trueCount();
+        }
+
+        long punctuation = visible - letters - digits;
+        counts[CharStatistics.VOWEL] += vowels;
+        counts[CharStatistics.CONSONANT] += letters - vowels;
+        counts[CharStatistics.DIGIT] += digits;
+        counts[CharStatistics.PUNCTUATION] += punctuation;
+        counts[CharStatistics.OTHER] += vectorChars - letters - digits - punctuation;
+        return bound;
+    }
+
+}
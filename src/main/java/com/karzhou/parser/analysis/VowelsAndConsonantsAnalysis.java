@@ -0,0 +1,49 @@
+package com.karzhou.parser.analysis;
+
+import com.karzhou.parser.composite.CommonText;
+import com.karzhou.parser.composite.impl.TextComponent;
+import com.karzhou.parser.composite.impl.TextLetter;
+import com.karzhou.parser.composite.impl.TextSign;
+
+import java.util.Map;
+
+/**
+ * Same result as {@code TextOperation.countVowelsAndConsonants}.
+ */
+public class VowelsAndConsonantsAnalysis implements TextAnalysis<Map<TextComponent, Map<String, Integer>>> {
+    private final SentenceLetterCounts counts = new SentenceLetterCounts();
+    private final CharStatistics statistics = new CharStatistics();
+
+    @Override
+    public void startSentence(TextComponent sentence) {
+        statistics.reset();
+    }
+
+    @Override
+    public void word(TextComponent word) {
+        for (int i = 0; i < word.getComponentsSize(); i++) {
+            CommonText leaf = word.getComponent(i);
+            if (leaf instanceof TextLetter) {
+                statistics.add(((TextLetter) leaf).getLetter());
+            }
+            else if (leaf instanceof TextSign) {
+                statistics.add(((TextSign) leaf).getSign());
+            }
+        }
+    }
+
+    @Override
+    public void endSentence(TextComponent sentence) {
+        counts.add(sentence, statistics);
+    }
+
+    @Override
+    public Map<TextComponent, Map<String, Integer>> getResult() {
+        return counts.toMap();
+    }
+
+    public SentenceLetterCounts getCounts() {
+        return counts;
+    }
+
+}
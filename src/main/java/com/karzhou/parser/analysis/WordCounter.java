@@ -0,0 +1,235 @@
+package com.karzhou.parser.analysis;
+
+import com.karzhou.parser.composite.CommonText;
+import com.karzhou.parser.composite.impl.TextLetter;
+import com.karzhou.parser.composite.impl.TextSign;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Case-insensitive word -> count map with open addressing and primitive counts.
+ * Words are hashed and compared char by char after lower-casing, so counting a word
+ * that is already present allocates nothing; a lower-cased key is created only for
+ * a new distinct word. Lower-casing is done per char, which is what {@link String#toLowerCase()}
+ * gives for the ASCII words produced by the parser. Not thread-safe: every worker owns its counter and counters
+ * are combined with {@link #merge(WordCounter)}.
+ */
+public class WordCounter {
+    private static final int DEFAULT_CAPACITY = 256;
+    private static final float LOAD_FACTOR = 0.5f;
+    private static final char[] ASCII_LOWER_CASE = new char[128];
+
+    static {
+        for (char c = 0; c < ASCII_LOWER_CASE.length; c++) {
+            ASCII_LOWER_CASE[c] = (c >= 'A' && c <= 'Z') ? (char) (c + ('a' - 'A')) : c;
+        }
+    }
+
+    private String[] keys;
+    private int[] hashes;
+    private int[] counts;
+    private int size;
+    private int resizeThreshold;
+    private final WordChars wordChars = new WordChars();
+
+    public WordCounter() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public WordCounter(int expectedWords) {
+        if (expectedWords < 0) {
+            throw new IllegalArgumentException("Expected number of words can't be negative: " + expectedWords);
+        }
+        int capacity = Integer.highestOneBit(Math.max(2, (int) (expectedWords / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    public void add(CharSequence word) {
+        add(word, 1);
+    }
+
+    /**
+     * Counts a WORD component straight from its leaf chars, without rendering it to a String.
+     */
+    public void add(CommonText word) {
+        add(wordChars.of(word), 1);
+    }
+
+    public void add(CharSequence word, int count) {
+        int hash = hash(word);
+        int mask = keys.length - 1;
+        int slot = hash & mask;
+
+        while (keys[slot] != null) {
+            if (hashes[slot] == hash && equalsIgnoreCase(keys[slot], word)) {
+                counts[slot] += count;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = toLowerCase(word);
+        hashes[slot] = hash;
+        counts[slot] = count;
+        if (++size > resizeThreshold) {
+            resize();
+        }
+    }
+
+    public int get(CharSequence word) {
+        int hash = hash(word);
+        int mask = keys.length - 1;
+        for (int slot = hash & mask; keys[slot] != null; slot = (slot + 1) & mask) {
+            if (hashes[slot] == hash && equalsIgnoreCase(keys[slot], word)) {
+                return counts[slot];
+            }
+        }
+        return 0;
+    }
+
+    public void merge(WordCounter other) {
+        for (int i = 0; i < other.keys.length; i++) {
+            if (other.keys[i] != null) {
+                add(other.keys[i], other.counts[i]);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Passes every lower-cased word with its count to the consumer, in no particular order.
+     */
+    public void forEach(ObjIntConsumer<String> consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                consumer.accept(keys[i], counts[i]);
+            }
+        }
+    }
+
+    public Map<String, Integer> toMap(int minCount) {
+        Map<String, Integer> result = new HashMap<>();
+        forEach((word, count) -> {
+            if (count >= minCount) {
+                result.put(word, count);
+            }
+        });
+        return result;
+    }
+
+    private void allocate(int capacity) {
+        keys = new String[capacity];
+        hashes = new int[capacity];
+        counts = new int[capacity];
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private void resize() {
+        String[] oldKeys = keys;
+        int[] oldHashes = hashes;
+        int[] oldCounts = counts;
+        allocate(oldKeys.length << 1);
+        int mask = keys.length - 1;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int slot = oldHashes[i] & mask;
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                hashes[slot] = oldHashes[i];
+                counts[slot] = oldCounts[i];
+            }
+        }
+    }
+
+    private static int hash(CharSequence word) {
+        int hash = 0;
+        for (int i = 0; i < word.length(); i++) {
+            hash = 31 * hash + toLowerCase(word.charAt(i));
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean equalsIgnoreCase(String key, CharSequence word) {
+        if (key.length() != word.length()) {
+            return false;
+        }
+        for (int i = 0; i < key.length(); i++) {
+            if (key.charAt(i) != toLowerCase(word.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String toLowerCase(CharSequence word) {
+        char[] chars = new char[word.length()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = toLowerCase(word.charAt(i));
+        }
+        return new String(chars);
+    }
+
+    private static char toLowerCase(char c) {
+        return c < ASCII_LOWER_CASE.length ? ASCII_LOWER_CASE[c] : Character.toLowerCase(c);
+    }
+
+    // Reusable view of the chars of one word; only a new distinct word is copied into a key.
+    private static final class WordChars implements CharSequence {
+        private char[] chars = new char[16];
+        private int length;
+
+        private WordChars of(CommonText word) {
+            length = 0;
+            for (int i = 0; i < word.getComponentsSize(); i++) {
+                CommonText leaf = word.getComponent(i);
+                if (leaf instanceof TextLetter) {
+                    append(((TextLetter) leaf).getLetter());
+                }
+                else if (leaf instanceof TextSign) {
+                    append(((TextSign) leaf).getSign());
+                }
+                else {
+                    String text = leaf.getTextMessage();
+                    for (int j = 0; j < text.length(); j++) {
+                        append(text.charAt(j));
+                    }
+                }
+            }
+            return this;
+        }
+
+        private void append(char c) {
+            if (length == chars.length) {
+                chars = Arrays.copyOf(chars, length * 2);
+            }
+            chars[length++] = c;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+        @Override
+        public char charAt(int index) {
+            return chars[index];
+        }
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new String(chars, start, end - start);
+        }
+        @Override
+        public String toString() {
+            return new String(chars, 0, length);
+        }
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.karzhou.parser.analysis;
+
+import java.util.Objects;
+
+/**
+ * Estimated frequency of a word: the real frequency lies in {@code [count - error, count]}.
+ */
+public class WordFrequency {
+    private final String word;
+    private final long count;
+    private final long error;
+
+    public WordFrequency(String word, long count, long error) {
+        this.word = word;
+        this.count = count;
+        this.error = error;
+    }
+
+    public String getWord() {
+        return word;
+    }
+    public long getCount() {
+        return count;
+    }
+    public long getError() {
+        return error;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof WordFrequency)) return false;
+        WordFrequency that = (WordFrequency) o;
+        return count == that.count && error == that.error && Objects.equals(word, that.word);
+    }
+    @Override
+    public int hashCode() {
+        return Objects.hash(word, count, error);
+    }
+    @Override
+    public String toString() {
+        return word + "=" + count + (error > 0 ? " (error " + error + ")" : "");
+    }
+
+}
@@ -0,0 +1,284 @@
+package com.karzhou.parser.batch;
+
+import com.karzhou.parser.composite.impl.TextComponent;
+import com.karzhou.parser.parser.TextAllParser;
+import com.karzhou.parser.reader.TextReader;
+import com.karzhou.parser.service.ExpressionConverter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Runs read -> expression substitution -> parse -> analysis for many documents as a pipeline
+ * of three stages with their own threads. Stages are connected by bounded queues: a stage
+ * that gets ahead blocks until the next one takes a document, so only about
+ * {@code 2 * queueCapacity} plus one document per thread are in memory at a time.
+ * <p>
+ * A document that fails in any stage is reported with its failure and does not stop the batch.
+ */
+public class BatchTextProcessor<R> {
+    private static final Logger LOGGER = LogManager.getLogger(BatchTextProcessor.class);
+    public static final int DEFAULT_QUEUE_CAPACITY = 16;
+    private static final Document END = new Document(null);
+
+    private final TextAllParser parser;
+    private final Function<TextComponent, R> analysis;
+    private final int readers;
+    private final int parsers;
+    private final int analyzers;
+    private final int queueCapacity;
+
+    public BatchTextProcessor(Function<TextComponent, R> analysis) {
+        this(new TextAllParser(), analysis, Math.max(1, Runtime.getRuntime().availableProcessors() / 4),
+                Runtime.getRuntime().availableProcessors(), Math.max(1, Runtime.getRuntime().availableProcessors() / 2),
+                DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * @param parser   shared by all parser threads; it should not have an executor of its own,
+     *                 and a {@code SubtreeInterner} in it is shared by every document of the batch
+     * @param analysis e.g. {@code TextOperation::countDuplicateWords}, called from the analysis threads
+     */
+    public BatchTextProcessor(TextAllParser parser, Function<TextComponent, R> analysis,
+                              int readers, int parsers, int analyzers, int queueCapacity) {
+        if (readers <= 0 || parsers <= 0 || analyzers <= 0) {
+            throw new IllegalArgumentException("Every stage needs at least one thread: readers=" + readers
+                    + ", parsers=" + parsers + ", analyzers=" + analyzers);
+        }
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("Queue capacity must be positive: " + queueCapacity);
+        }
+        this.parser = parser;
+        this.analysis = analysis;
+        this.readers = readers;
+        this.parsers = parsers;
+        this.analyzers = analyzers;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Processes the regular files of the directory in the order of their names.
+     */
+    public int process(Path directory, Consumer<? super DocumentResult<R>> sink) {
+        List<Path> paths;
+        try (Stream<Path> files = Files.list(directory)) {
+            paths = files.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        } catch (IOException e) {
+            LOGGER.fatal("Problems with listing directory: " + directory, e);
+            throw new RuntimeException("Problems with listing directory: " + directory, e);
+        }
+        return process(paths, sink);
+    }
+
+    /**
+     * Writes one line per document to the report file as soon as the document is done.
+     */
+    public int process(List<Path> paths, Path report) {
+        try (BufferedWriter writer = Files.newBufferedWriter(report)) {
+            return process(paths, documentResult -> {
+                try {
+                    writer.write(documentResult.toString());
+                    writer.newLine();
+                    writer.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException e) {
+            LOGGER.fatal("Problems with writing report: " + report, e);
+            throw new RuntimeException("Problems with writing report: " + report, e);
+        }
+    }
+
+    /**
+     * The sink receives the documents in the order they complete and is called by one thread at a time.
+     *
+     * @return number of documents that failed
+     */
+    public int process(List<Path> paths, Consumer<? super DocumentResult<R>> sink) {
+        long start = System.nanoTime();
+        Batch batch = new Batch(paths, sink);
+        ExecutorService executor = Executors.newFixedThreadPool(readers + parsers + analyzers);
+        CompletionService<Void> completionService = new ExecutorCompletionService<>(executor);
+        List<Future<Void>> workers = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < readers; i++) {
+                workers.add(completionService.submit(batch::read, null));
+            }
+            for (int i = 0; i < parsers; i++) {
+                workers.add(completionService.submit(batch::parse, null));
+            }
+            for (int i = 0; i < analyzers; i++) {
+                workers.add(completionService.submit(batch::analyze, null));
+            }
+            for (int i = 0; i < workers.size(); i++) {
+                completionService.take().get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            workers.forEach(o -> o.cancel(true));
+            LOGGER.error("Batch processing was interrupted", e);
+            throw new RuntimeException("Batch processing was interrupted", e);
+        } catch (ExecutionException e) {
+            workers.forEach(o -> o.cancel(true));
+            LOGGER.error("Batch processing was stopped", e.getCause());
+            throw new RuntimeException("Batch processing was stopped", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        LOGGER.info("Processed {} documents ({} failed) in {} ms", paths.size(), batch.failed.get(),
+                (System.nanoTime() - start) / 1_000_000);
+        return batch.failed.get();
+    }
+
+    private static final class Document {
+        private final Path path;
+        private final long started = System.nanoTime();
+        private List<String> paragraphs;
+        private TextComponent text;
+        private Throwable failure;
+        private int chars;
+        private long readNanos;
+        private long convertNanos;
+        private long parseNanos;
+
+        private Document(Path path) {
+            this.path = path;
+        }
+    }
+
+    private final class Batch {
+        private final List<Path> paths;
+        private final Consumer<? super DocumentResult<R>> sink;
+        private final BlockingQueue<Document> readDocuments = new ArrayBlockingQueue<>(queueCapacity);
+        private final BlockingQueue<Document> parsedDocuments = new ArrayBlockingQueue<>(queueCapacity);
+        private final AtomicInteger nextPath = new AtomicInteger();
+        private final AtomicInteger activeReaders = new AtomicInteger(readers);
+        private final AtomicInteger activeParsers = new AtomicInteger(parsers);
+        private final AtomicInteger failed = new AtomicInteger();
+
+        private Batch(List<Path> paths, Consumer<? super DocumentResult<R>> sink) {
+            this.paths = paths;
+            this.sink = sink;
+        }
+
+        private void read() {
+            ExpressionConverter converter = new ExpressionConverter();
+            try {
+                int index;
+                while ((index = nextPath.getAndIncrement()) < paths.size()) {
+                    Document document = new Document(paths.get(index));
+                    try {
+                        long start = System.nanoTime();
+                        List<String> paragraphs;
+                        try (Stream<String> stream = TextReader.readParagraphs(document.path)) {
+                            paragraphs = stream.collect(Collectors.toList());
+                        }
+                        long read = System.nanoTime();
+                        paragraphs.replaceAll(converter::replaceExpressionsByNumber);
+                        document.convertNanos = System.nanoTime() - read;
+                        document.readNanos = read - start;
+                        document.paragraphs = paragraphs;
+                        paragraphs.forEach(o -> document.chars += o.length());
+                    } catch (RuntimeException e) {
+                        fail(document, e);
+                    }
+                    readDocuments.put(document);
+                }
+                finishStage(activeReaders, readDocuments, parsers);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void parse() {
+            try {
+                Document document;
+                while ((document = readDocuments.take()) != END) {
+                    if (document.failure == null) {
+                        try {
+                            long start = System.nanoTime();
+                            document.text = parser.parseParagraphs(document.paragraphs.stream());
+                            document.parseNanos = System.nanoTime() - start;
+                        } catch (RuntimeException e) {
+                            fail(document, e);
+                        }
+                        document.paragraphs = null;
+                    }
+                    parsedDocuments.put(document);
+                }
+                finishStage(activeParsers, parsedDocuments, analyzers);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void analyze() {
+            try {
+                Document document;
+                while ((document = parsedDocuments.take()) != END) {
+                    R result = null;
+                    long analysisNanos = 0;
+                    if (document.failure == null) {
+                        try {
+                            long start = System.nanoTime();
+                            result = analysis.apply(document.text);
+                            analysisNanos = System.nanoTime() - start;
+                        } catch (RuntimeException e) {
+                            fail(document, e);
+                        }
+                    }
+                    DocumentResult<R> documentResult = new DocumentResult<>(document.path, result, document.failure,
+                            document.chars, document.readNanos, document.convertNanos, document.parseNanos,
+                            analysisNanos, System.nanoTime() - document.started);
+                    synchronized (sink) {
+                        sink.accept(documentResult);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void fail(Document document, RuntimeException e) {
+            LOGGER.error("Document can't be processed: {}", document.path, e);
+            document.failure = e;
+            document.paragraphs = null;
+            document.text = null;
+            failed.incrementAndGet();
+        }
+
+        // The last thread of a stage tells every thread of the next stage that no more documents come.
+        private void finishStage(AtomicInteger activeThreads, BlockingQueue<Document> output, int consumers)
+                throws InterruptedException {
+            if (activeThreads.decrementAndGet() == 0) {
+                for (int i = 0; i < consumers; i++) {
+                    output.put(END);
+                }
+            }
+        }
+    }
+
+}
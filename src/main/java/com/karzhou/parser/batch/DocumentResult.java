@@ -0,0 +1,90 @@
+package com.karzhou.parser.batch;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outcome of one document of a batch with the time spent in each stage.
+ * Waiting in the queues between stages is part of {@link #getLatencyNanos()} only.
+ */
+public class DocumentResult<R> {
+    private final Path path;
+    private final R result;
+    private final Throwable failure;
+    private final int chars;
+    private final long readNanos;
+    private final long convertNanos;
+    private final long parseNanos;
+    private final long analysisNanos;
+    private final long latencyNanos;
+
+    DocumentResult(Path path, R result, Throwable failure, int chars, long readNanos, long convertNanos,
+                   long parseNanos, long analysisNanos, long latencyNanos) {
+        this.path = path;
+        this.result = result;
+        this.failure = failure;
+        this.chars = chars;
+        this.readNanos = readNanos;
+        this.convertNanos = convertNanos;
+        this.parseNanos = parseNanos;
+        this.analysisNanos = analysisNanos;
+        this.latencyNanos = latencyNanos;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+    /**
+     * @return result of the analysis, {@code null} if the document failed
+     */
+    public R getResult() {
+        return result;
+    }
+    public Throwable getFailure() {
+        return failure;
+    }
+    public boolean isSuccessful() {
+        return failure == null;
+    }
+    /**
+     * Number of characters after the expressions were replaced by numbers.
+     */
+    public int getChars() {
+        return chars;
+    }
+    public long getReadNanos() {
+        return readNanos;
+    }
+    public long getConvertNanos() {
+        return convertNanos;
+    }
+    public long getParseNanos() {
+        return parseNanos;
+    }
+    public long getAnalysisNanos() {
+        return analysisNanos;
+    }
+    public long getLatencyNanos() {
+        return latencyNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder(path.toString())
+                .append(": chars=").append(chars)
+                .append(", read=").append(toMillis(readNanos)).append("ms")
+                .append(", convert=").append(toMillis(convertNanos)).append("ms")
+                .append(", parse=").append(toMillis(parseNanos)).append("ms")
+                .append(", analysis=").append(toMillis(analysisNanos)).append("ms")
+                .append(", latency=").append(toMillis(latencyNanos)).append("ms");
+        if (failure != null) {
+            return stringBuilder.append(", failed: ").append(failure).toString();
+        }
+        return stringBuilder.append(", result=").append(result).toString();
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+}
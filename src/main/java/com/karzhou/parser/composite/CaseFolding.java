@@ -0,0 +1,27 @@
+package com.karzhou.parser.composite;
+
+/**
+ * Case folding of chars by a precomputed table: two chars fold to the same char exactly
+ * when {@link String#equalsIgnoreCase(String)} treats them as equal.
+ */
+public final class CaseFolding {
+    private static final char[] FOLDED = new char[Character.MAX_VALUE + 1];
+
+    static {
+        for (int c = 0; c <= Character.MAX_VALUE; c++) {
+            FOLDED[c] = Character.toLowerCase(Character.toUpperCase((char) c));
+        }
+    }
+
+    private CaseFolding() {
+    }
+
+    public static char fold(char c) {
+        return FOLDED[c];
+    }
+
+    public static boolean equalsIgnoreCase(char c, char symbol) {
+        return FOLDED[c] == FOLDED[symbol];
+    }
+
+}
@@ -1,12 +1,24 @@
 package com.karzhou.parser.composite;
 
+import java.io.IOException;
+
 public interface CommonText {
 
     String getTextMessage();
+    /**
+     * Writes the same chars as {@link #getTextMessage()} straight into the appendable.
+     */
+    void appendTo(Appendable appendable) throws IOException;
     boolean addComponent(CommonText commonText);
     CommonText getComponent(int index);
     int getComponentsSize();
     ComponentType getTypeOfTextComponent();
     int countOfOrderedSymbol(String symbol);
+    int countOfSymbol(char symbol);
+    /**
+     * Adds the case-insensitive number of occurrences of {@code symbols[i]} to {@code counts[i]}
+     * for every symbol in one pass.
+     */
+    void countSymbols(char[] symbols, int[] counts);
 
 }
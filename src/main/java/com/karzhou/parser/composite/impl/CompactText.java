@@ -0,0 +1,356 @@
+package com.karzhou.parser.composite.impl;
+
+import com.karzhou.parser.composite.CaseFolding;
+import com.karzhou.parser.composite.CommonText;
+import com.karzhou.parser.composite.ComponentType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.CharBuffer;
+
+/**
+ * Read-only TEXT component that keeps the source characters once and the structure
+ * as offset arrays. Paragraph, sentence, lexeme and word nodes are lightweight views
+ * created on demand, leaves are shared {@link TextLetter}/{@link TextSign} instances.
+ * <p>
+ * Node {@code i} of a level owns the children {@code [offsets[i], offsets[i + 1])} of the
+ * next level. A lexeme child is either a word index or {@code ~position} of a sign in {@code chars}.
+ */
+public class CompactText implements CommonText {
+    private static final String TO_STRING_MESSAGE = "\n\t";
+    private static final String READ_ONLY_MESSAGE = "Compact text is read-only";
+
+    private final char[] chars;
+    private final CharBuffer charSequence;
+    private final int[] paragraphSentences;
+    private final int[] sentenceLexemes;
+    private final int[] lexemeChildren;
+    private final int[] children;
+    private final int[] wordStarts;
+    private final int[] wordEnds;
+    private final Node root;
+
+    public CompactText(char[] chars, int[] paragraphSentences, int[] sentenceLexemes, int[] lexemeChildren,
+                       int[] children, int[] wordStarts, int[] wordEnds) {
+        this.chars = chars;
+        this.charSequence = CharBuffer.wrap(chars).asReadOnlyBuffer();
+        this.paragraphSentences = paragraphSentences;
+        this.sentenceLexemes = sentenceLexemes;
+        this.lexemeChildren = lexemeChildren;
+        this.children = children;
+        this.wordStarts = wordStarts;
+        this.wordEnds = wordEnds;
+        this.root = new Node(ComponentType.TEXT, 0);
+    }
+
+    @Override
+    public String getTextMessage() {
+        return root.getTextMessage();
+    }
+    @Override
+    public void appendTo(Appendable appendable) throws IOException {
+        root.appendTo(appendable);
+    }
+    @Override
+    public boolean addComponent(CommonText commonText) {
+        throw new UnsupportedOperationException(READ_ONLY_MESSAGE);
+    }
+    @Override
+    public CommonText getComponent(int index) {
+        return root.getComponent(index);
+    }
+    @Override
+    public int getComponentsSize() {
+        return root.getComponentsSize();
+    }
+    @Override
+    public ComponentType getTypeOfTextComponent() {
+        return ComponentType.TEXT;
+    }
+    @Override
+    public int countOfOrderedSymbol(String symbol) {
+        return root.countOfOrderedSymbol(symbol);
+    }
+    @Override
+    public int countOfSymbol(char symbol) {
+        return root.countOfSymbol(symbol);
+    }
+    @Override
+    public void countSymbols(char[] symbols, int[] counts) {
+        root.countSymbols(symbols, counts);
+    }
+
+    /**
+     * Receives a range {@code [start, end)} of the source chars; the array must not be modified.
+     */
+    @FunctionalInterface
+    public interface CharSpanConsumer {
+        void accept(char[] chars, int start, int end);
+    }
+
+    public int getSentenceCount() {
+        return sentenceLexemes.length - 1;
+    }
+
+    /**
+     * Passes every word of the sentence with the given document-order index as one contiguous span.
+     */
+    public void forEachWordSpan(int sentence, CharSpanConsumer consumer) {
+        if (sentence < 0 || sentence >= getSentenceCount()) {
+            throw new IndexOutOfBoundsException("Index " + sentence + " out of bounds for length " + getSentenceCount());
+        }
+        for (int lexeme = sentenceLexemes[sentence]; lexeme < sentenceLexemes[sentence + 1]; lexeme++) {
+            for (int i = lexemeChildren[lexeme]; i < lexemeChildren[lexeme + 1]; i++) {
+                int child = children[i];
+                if (child >= 0) {
+                    consumer.accept(chars, wordStarts[child], wordEnds[child]);
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CompactText)) return false;
+        return root.equals(((CompactText) o).root);
+    }
+    @Override
+    public int hashCode() {
+        return root.hashCode();
+    }
+    @Override
+    public String toString() {
+        return root.toString();
+    }
+
+    private static CommonText leaf(char c) {
+        return isLetter(c) ? TextLetter.valueOf(c) : TextSign.valueOf(c);
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    private final class Node implements CommonText {
+        private final ComponentType type;
+        private final int index;
+
+        private Node(ComponentType type, int index) {
+            this.type = type;
+            this.index = index;
+        }
+
+        @Override
+        public String getTextMessage() {
+            StringBuilder stringBuilder = new StringBuilder();
+            try {
+                appendTo(stringBuilder);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return stringBuilder.toString();
+        }
+        @Override
+        public boolean addComponent(CommonText commonText) {
+            throw new UnsupportedOperationException(READ_ONLY_MESSAGE);
+        }
+        @Override
+        public CommonText getComponent(int index) {
+            if (index < 0 || index >= getComponentsSize()) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + getComponentsSize());
+            }
+            switch (type) {
+                case TEXT:
+                    return new Node(ComponentType.PARAGRAPH, index);
+                case PARAGRAPH:
+                    return new Node(ComponentType.SENTENCE, paragraphSentences[this.index] + index);
+                case SENTENCE:
+                    return new Node(ComponentType.LEXEME, sentenceLexemes[this.index] + index);
+                case LEXEME:
+                    int child = children[lexemeChildren[this.index] + index];
+                    return child >= 0 ? new Node(ComponentType.WORD, child) : TextSign.valueOf(chars[~child]);
+                default:
+                    return leaf(chars[wordStarts[this.index] + index]);
+            }
+        }
+        @Override
+        public int getComponentsSize() {
+            switch (type) {
+                case TEXT:
+                    return paragraphSentences.length - 1;
+                case PARAGRAPH:
+                    return paragraphSentences[index + 1] - paragraphSentences[index];
+                case SENTENCE:
+                    return sentenceLexemes[index + 1] - sentenceLexemes[index];
+                case LEXEME:
+                    return lexemeChildren[index + 1] - lexemeChildren[index];
+                default:
+                    return wordEnds[index] - wordStarts[index];
+            }
+        }
+        @Override
+        public ComponentType getTypeOfTextComponent() {
+            return type;
+        }
+        @Override
+        public int countOfOrderedSymbol(String symbol) {
+            if (symbol == null || symbol.length() != 1) {
+                return 0;
+            }
+            return countOfSymbol(symbol.charAt(0));
+        }
+        @Override
+        public int countOfSymbol(char searchSymbol) {
+            if (type == ComponentType.WORD) {
+                return countInChild(index, searchSymbol);
+            }
+            int counter = 0;
+            for (int lexeme = firstLexeme(); lexeme < endLexeme(); lexeme++) {
+                for (int i = lexemeChildren[lexeme]; i < lexemeChildren[lexeme + 1]; i++) {
+                    counter += countInChild(children[i], searchSymbol);
+                }
+            }
+            return counter;
+        }
+
+        @Override
+        public void countSymbols(char[] symbols, int[] counts) {
+            if (type == ComponentType.WORD) {
+                countSymbolsInChild(index, symbols, counts);
+                return;
+            }
+            for (int lexeme = firstLexeme(); lexeme < endLexeme(); lexeme++) {
+                for (int i = lexemeChildren[lexeme]; i < lexemeChildren[lexeme + 1]; i++) {
+                    countSymbolsInChild(children[i], symbols, counts);
+                }
+            }
+        }
+
+        private int countInChild(int child, char searchSymbol) {
+            if (child < 0) {
+                return CaseFolding.equalsIgnoreCase(chars[~child], searchSymbol) ? 1 : 0;
+            }
+            char foldedSymbol = CaseFolding.fold(searchSymbol);
+            int counter = 0;
+            for (int i = wordStarts[child]; i < wordEnds[child]; i++) {
+                if (CaseFolding.fold(chars[i]) == foldedSymbol) {
+                    counter++;
+                }
+            }
+            return counter;
+        }
+
+        private void countSymbolsInChild(int child, char[] symbols, int[] counts) {
+            int start = child < 0 ? ~child : wordStarts[child];
+            int end = child < 0 ? ~child + 1 : wordEnds[child];
+            for (int i = start; i < end; i++) {
+                char folded = CaseFolding.fold(chars[i]);
+                for (int j = 0; j < symbols.length; j++) {
+                    if (CaseFolding.fold(symbols[j]) == folded) {
+                        counts[j]++;
+                    }
+                }
+            }
+        }
+
+        private int firstLexeme() {
+            switch (type) {
+                case TEXT:
+                    return 0;
+                case PARAGRAPH:
+                    return sentenceLexemes[paragraphSentences[index]];
+                case SENTENCE:
+                    return sentenceLexemes[index];
+                default:
+                    return index;
+            }
+        }
+
+        private int endLexeme() {
+            switch (type) {
+                case TEXT:
+                    return lexemeChildren.length - 1;
+                case PARAGRAPH:
+                    return sentenceLexemes[paragraphSentences[index + 1]];
+                case SENTENCE:
+                    return sentenceLexemes[index + 1];
+                default:
+                    return index + 1;
+            }
+        }
+
+        @Override
+        public void appendTo(Appendable appendable) throws IOException {
+            if (type == ComponentType.WORD) {
+                appendChars(appendable, wordStarts[index], wordEnds[index]);
+                return;
+            }
+            if (type == ComponentType.LEXEME) {
+                for (int i = lexemeChildren[index]; i < lexemeChildren[index + 1]; i++) {
+                    int child = children[i];
+                    if (child >= 0) {
+                        appendChars(appendable, wordStarts[child], wordEnds[child]);
+                    }
+                    else {
+                        appendable.append(chars[~child]);
+                    }
+                }
+                return;
+            }
+            for (int i = 0; i < getComponentsSize(); i++) {
+                Node child = (Node) getComponent(i);
+                if (type == ComponentType.TEXT) {
+                    appendable.append(TO_STRING_MESSAGE);
+                }
+                child.appendTo(appendable);
+                if (type == ComponentType.SENTENCE) {
+                    appendable.append(' ');
+                }
+            }
+        }
+
+        private void appendChars(Appendable appendable, int start, int end) throws IOException {
+            if (appendable instanceof StringBuilder) {
+                ((StringBuilder) appendable).append(chars, start, end - start);
+            }
+            else {
+                appendable.append(charSequence, start, end);
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Node)) return false;
+            Node that = (Node) o;
+            if (type != that.type || getComponentsSize() != that.getComponentsSize()) {
+                return false;
+            }
+            for (int i = 0; i < getComponentsSize(); i++) {
+                if (!getComponent(i).equals(that.getComponent(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        @Override
+        public int hashCode() {
+            int hashCode = type.ordinal();
+            for (int i = 0; i < getComponentsSize(); i++) {
+                hashCode = 31 * hashCode + getComponent(i).hashCode();
+            }
+            return hashCode;
+        }
+        @Override
+        public String toString() {
+            StringBuilder stringBuilder = new StringBuilder();
+            for (int i = 0; i < getComponentsSize(); i++) {
+                stringBuilder.append(TO_STRING_MESSAGE);
+                stringBuilder.append(getComponent(i).getTextMessage());
+            }
+            return stringBuilder.toString();
+        }
+    }
+
+}
@@ -3,14 +3,20 @@ package com.karzhou.parser.composite.impl;
 import com.karzhou.parser.composite.CommonText;
 import com.karzhou.parser.composite.ComponentType;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
 public class TextComponent implements CommonText {
     private static final String TO_STRING_MESSAGE = "\n\t";
+    private static final String FROZEN_MESSAGE = "Frozen text component is read-only";
     private List<CommonText> components = new ArrayList<>();
     private ComponentType type;
+    private boolean frozen;
+    private Metrics metrics;
+    private int hash;
 
     public TextComponent(ComponentType type) {
         this.type = type;
@@ -18,14 +24,27 @@ public class TextComponent implements CommonText {
 
     @Override
     public int countOfOrderedSymbol(String symbol) {
+        if (symbol == null || symbol.length() != 1) {
+            return 0;
+        }
+        return countOfSymbol(symbol.charAt(0));
+    }
+    @Override
+    public int countOfSymbol(char symbol) {
         int counter = 0;
         for(CommonText commonText : components){
-            counter += commonText.countOfOrderedSymbol(symbol);
+            counter += commonText.countOfSymbol(symbol);
         }
 
         return counter;
     }
     @Override
+    public void countSymbols(char[] symbols, int[] counts) {
+        for(CommonText commonText : components){
+            commonText.countSymbols(symbols, counts);
+        }
+    }
+    @Override
     public ComponentType getTypeOfTextComponent() {
         return type;
     }
@@ -39,40 +58,154 @@ public class TextComponent implements CommonText {
     }
     @Override
     public String getTextMessage() {
-        StringBuilder stringBuilder = new StringBuilder();
-
-        components.removeIf(Objects::isNull);
-        switch (type){
-            case TEXT:
-                components.forEach(o -> stringBuilder.append("\n\t").append(o.getTextMessage()));
-                break;
-            case SENTENCE:
-                components.forEach(o -> stringBuilder.append(o.getTextMessage()).append(" "));
-                break;
-            default:
-                components.forEach(o -> stringBuilder.append(o.getTextMessage()));
+        StringBuilder stringBuilder = new StringBuilder(getRenderedLength());
+        try {
+            appendTo(stringBuilder);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-
         return stringBuilder.toString();
     }
     @Override
+    public void appendTo(Appendable appendable) throws IOException {
+        for (CommonText commonText : components) {
+            if (commonText == null) {
+                continue;
+            }
+            if (type == ComponentType.TEXT) {
+                appendable.append(TO_STRING_MESSAGE);
+            }
+            commonText.appendTo(appendable);
+            if (type == ComponentType.SENTENCE) {
+                appendable.append(' ');
+            }
+        }
+    }
+    @Override
     public boolean addComponent(CommonText commonText) {
+        checkNotFrozen();
         return components.add(commonText);
     }
+    public void replaceComponents(int fromIndex, int toIndex, List<? extends CommonText> replacement) {
+        checkNotFrozen();
+        List<CommonText> replaced = components.subList(fromIndex, toIndex);
+        replaced.clear();
+        replaced.addAll(replacement);
+    }
+
+    /**
+     * Number of characters in the leaves of this component.
+     */
+    public int getLength() {
+        return metrics().length;
+    }
+    /**
+     * Length of {@link #getTextMessage()}.
+     */
+    public int getRenderedLength() {
+        return metrics().renderedLength;
+    }
+    public int getLetterCount() {
+        return metrics().letterCount;
+    }
+    public int getWordCount() {
+        return metrics().wordCount;
+    }
+    /**
+     * Letter count of the longest word in this component, {@code 0} if there are no words.
+     */
+    public int getMaxWordLength() {
+        return metrics().maxWordLength;
+    }
+
+    // Aggregates are kept only by frozen components, which can't change below them any more;
+    // a mutable component computes them from its children on every call.
+    private Metrics metrics() {
+        return frozen ? metrics : computeMetrics();
+    }
+    private Metrics computeMetrics() {
+        Metrics result = new Metrics();
+        for (CommonText commonText : components) {
+            if (commonText instanceof TextComponent) {
+                Metrics child = ((TextComponent) commonText).metrics();
+                result.length += child.length;
+                result.renderedLength += child.renderedLength;
+                result.letterCount += child.letterCount;
+                result.wordCount += child.wordCount;
+                result.maxWordLength = Math.max(result.maxWordLength, child.maxWordLength);
+            }
+            else if (commonText instanceof TextLetter) {
+                result.length++;
+                result.renderedLength++;
+                result.letterCount++;
+            }
+            else if (commonText != null) {
+                result.length++;
+                result.renderedLength += commonText instanceof TextSign ? 1 : commonText.getTextMessage().length();
+            }
+            if (commonText != null && type == ComponentType.TEXT) {
+                result.renderedLength += TO_STRING_MESSAGE.length();
+            }
+            else if (commonText != null && type == ComponentType.SENTENCE) {
+                result.renderedLength++;
+            }
+        }
+        if (type == ComponentType.WORD) {
+            result.wordCount = 1;
+            result.maxWordLength = result.letterCount;
+        }
+        return result;
+    }
+
+    /**
+     * Makes this component and all components below it read-only and computes their aggregates
+     * and hash codes once, so frozen components answer them in O(1) and can be used as map keys
+     * without walking the subtree on every lookup.
+     */
+    public TextComponent freeze() {
+        if (frozen) {
+            return this;
+        }
+        for (CommonText commonText : components) {
+            if (commonText instanceof TextComponent) {
+                ((TextComponent) commonText).freeze();
+            }
+        }
+        metrics = computeMetrics();
+        hash = computeHashCode();
+        frozen = true;
+        return this;
+    }
+    public boolean isFrozen() {
+        return frozen;
+    }
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new UnsupportedOperationException(FROZEN_MESSAGE);
+        }
+    }
 
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof TextComponent)) return false;
         TextComponent that = (TextComponent) o;
-        return Objects.equals(components, that.components) &&
-                type == that.type;
+        if (type != that.type || components.size() != that.components.size()) {
+            return false;
+        }
+        if (frozen && that.frozen && hash != that.hash) {
+            return false;
+        }
+        return Objects.equals(components, that.components);
     }
     @Override
     public int hashCode() {
-        int hashCode = type.hashCode();
+        return frozen ? hash : computeHashCode();
+    }
+    private int computeHashCode() {
+        int hashCode = type.ordinal();
         for(CommonText commonText : components){
-            hashCode += commonText.hashCode() * 31;
+            hashCode = 31 * hashCode + Objects.hashCode(commonText);
         }
 
         return hashCode;
@@ -87,4 +220,12 @@ public class TextComponent implements CommonText {
         return stringBuilder.toString();
     }
 
+    private static final class Metrics {
+        private int length;
+        private int renderedLength;
+        private int letterCount;
+        private int wordCount;
+        private int maxWordLength;
+    }
+
 }
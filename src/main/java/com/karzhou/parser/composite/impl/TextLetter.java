@@ -1,28 +1,66 @@
 package com.karzhou.parser.composite.impl;
 
+import com.karzhou.parser.composite.CaseFolding;
 import com.karzhou.parser.composite.CommonText;
 import com.karzhou.parser.composite.ComponentType;
 
+import java.io.IOException;
 import java.util.Objects;
 
 public class TextLetter implements CommonText {
-    private char letter;
+    private static final int CACHED_LETTERS = 128;
+    private static final TextLetter[] CACHE = new TextLetter[CACHED_LETTERS];
+
+    static {
+        for (char c = 0; c < CACHED_LETTERS; c++) {
+            CACHE[c] = new TextLetter(c);
+        }
+    }
+
+    private final char letter;
     public TextLetter(char letter) {
         this.letter = letter;
     }
 
+    /**
+     * Shared instance for ASCII chars, a new one otherwise.
+     */
+    public static TextLetter valueOf(char letter) {
+        return letter < CACHED_LETTERS ? CACHE[letter] : new TextLetter(letter);
+    }
+
     @Override
     public int countOfOrderedSymbol(String symbol) {
-        if(String.valueOf(letter).equalsIgnoreCase(symbol)){
-            return 1;
+        if (symbol == null || symbol.length() != 1) {
+            return 0;
+        }
+        return countOfSymbol(symbol.charAt(0));
+    }
+    @Override
+    public int countOfSymbol(char symbol) {
+        return CaseFolding.equalsIgnoreCase(letter, symbol) ? 1 : 0;
+    }
+    @Override
+    public void countSymbols(char[] symbols, int[] counts) {
+        char foldedLetter = CaseFolding.fold(letter);
+        for (int i = 0; i < symbols.length; i++) {
+            if (CaseFolding.fold(symbols[i]) == foldedLetter) {
+                counts[i]++;
+            }
         }
-        return 0;
     }
     @Override
     public String getTextMessage() {
         return String.valueOf(letter);
     }
     @Override
+    public void appendTo(Appendable appendable) throws IOException {
+        appendable.append(letter);
+    }
+    public char getLetter() {
+        return letter;
+    }
+    @Override
     public boolean addComponent(CommonText commonText) {
         return false;
     }
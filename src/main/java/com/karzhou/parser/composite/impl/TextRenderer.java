@@ -0,0 +1,96 @@
+package com.karzhou.parser.composite.impl;
+
+import com.karzhou.parser.composite.CommonText;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * Renders the text of a component into a {@link ByteBuffer} in one pass over the tree;
+ * chars are encoded through a small staging buffer, no String of the whole text is built.
+ * For a {@link java.io.Writer} or any other {@link Appendable} use {@link CommonText#appendTo(Appendable)}.
+ */
+public final class TextRenderer {
+    private static final int STAGING_SIZE = 1024;
+
+    private TextRenderer() {
+    }
+
+    /**
+     * @return the number of bytes written
+     * @throws BufferOverflowException if the text doesn't fit into the remaining bytes of the buffer
+     */
+    public static int render(CommonText component, ByteBuffer buffer, Charset charset) {
+        int start = buffer.position();
+        EncodingAppendable appendable = new EncodingAppendable(buffer, charset);
+        try {
+            component.appendTo(appendable);
+            appendable.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.position() - start;
+    }
+
+    private static final class EncodingAppendable implements Appendable {
+        private final ByteBuffer buffer;
+        private final CharsetEncoder encoder;
+        private final CharBuffer staging = CharBuffer.allocate(STAGING_SIZE);
+
+        private EncodingAppendable(ByteBuffer buffer, Charset charset) {
+            this.buffer = buffer;
+            this.encoder = charset.newEncoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        }
+
+        @Override
+        public Appendable append(CharSequence csq) throws CharacterCodingException {
+            return append(csq, 0, csq.length());
+        }
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) throws CharacterCodingException {
+            for (int i = start; i < end; i++) {
+                append(csq.charAt(i));
+            }
+            return this;
+        }
+        @Override
+        public Appendable append(char c) throws CharacterCodingException {
+            if (!staging.hasRemaining()) {
+                encode(false);
+            }
+            staging.put(c);
+            return this;
+        }
+
+        private void finish() throws CharacterCodingException {
+            encode(true);
+            check(encoder.flush(buffer));
+        }
+
+        private void encode(boolean endOfInput) throws CharacterCodingException {
+            staging.flip();
+            check(encoder.encode(staging, buffer, endOfInput));
+            staging.compact();
+        }
+
+        private void check(CoderResult result) throws CharacterCodingException {
+            if (result.isOverflow()) {
+                throw new BufferOverflowException();
+            }
+            if (result.isError()) {
+                result.throwException();
+            }
+        }
+    }
+
+}
@@ -1,28 +1,66 @@
 package com.karzhou.parser.composite.impl;
 
+import com.karzhou.parser.composite.CaseFolding;
 import com.karzhou.parser.composite.CommonText;
 import com.karzhou.parser.composite.ComponentType;
 
+import java.io.IOException;
 import java.util.Objects;
 
 public class TextSign implements CommonText {
-    private char sign;
+    private static final int CACHED_SIGNS = 128;
+    private static final TextSign[] CACHE = new TextSign[CACHED_SIGNS];
+
+    static {
+        for (char c = 0; c < CACHED_SIGNS; c++) {
+            CACHE[c] = new TextSign(c);
+        }
+    }
+
+    private final char sign;
     public TextSign(char sign) {
         this.sign = sign;
     }
 
+    /**
+     * Shared instance for ASCII chars, a new one otherwise.
+     */
+    public static TextSign valueOf(char sign) {
+        return sign < CACHED_SIGNS ? CACHE[sign] : new TextSign(sign);
+    }
+
     @Override
     public int countOfOrderedSymbol(String symbol) {
-        if(String.valueOf(sign).equalsIgnoreCase(symbol)){
-            return 1;
+        if (symbol == null || symbol.length() != 1) {
+            return 0;
+        }
+        return countOfSymbol(symbol.charAt(0));
+    }
+    @Override
+    public int countOfSymbol(char symbol) {
+        return CaseFolding.equalsIgnoreCase(sign, symbol) ? 1 : 0;
+    }
+    @Override
+    public void countSymbols(char[] symbols, int[] counts) {
+        char foldedSign = CaseFolding.fold(sign);
+        for (int i = 0; i < symbols.length; i++) {
+            if (CaseFolding.fold(symbols[i]) == foldedSign) {
+                counts[i]++;
+            }
         }
-        return 0;
     }
     @Override
     public String getTextMessage() {
         return String.valueOf(sign);
     }
     @Override
+    public void appendTo(Appendable appendable) throws IOException {
+        appendable.append(sign);
+    }
+    public char getSign() {
+        return sign;
+    }
+    @Override
     public boolean addComponent(CommonText commonText) {
         return false;
     }
@@ -0,0 +1,173 @@
+package com.karzhou.parser.composite.impl;
+
+import com.karzhou.parser.composite.CommonText;
+import com.karzhou.parser.composite.ComponentType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lazy {@link CharSequence} over the text of a component: the chars of {@link CommonText#getTextMessage()}
+ * are looked up in the tree on access instead of being copied into a String. Child offsets are
+ * computed for a node the first time a char inside it is read.
+ * The view doesn't follow changes of the tree made after it was created.
+ */
+public class TextView implements CharSequence {
+    private static final String TEXT_SEPARATOR = "\n\t";
+    private final CommonText component;
+    private final int length;
+    private List<CommonText> children;
+    private int[] childEnds;
+    private TextView[] childViews;
+
+    public TextView(CommonText component) {
+        this.component = component;
+        this.length = renderedLength(component);
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + length);
+        }
+        if (component instanceof TextLetter) {
+            return ((TextLetter) component).getLetter();
+        }
+        if (component instanceof TextSign) {
+            return ((TextSign) component).getSign();
+        }
+        if (childEnds == null) {
+            indexChildren();
+        }
+
+        int child = findChild(index);
+        int local = index - (child == 0 ? 0 : childEnds[child - 1]);
+        ComponentType type = component.getTypeOfTextComponent();
+        if (type == ComponentType.TEXT) {
+            if (local < TEXT_SEPARATOR.length()) {
+                return TEXT_SEPARATOR.charAt(local);
+            }
+            local -= TEXT_SEPARATOR.length();
+        }
+        TextView childView = childView(child);
+        if (type == ComponentType.SENTENCE && local == childView.length) {
+            return ' ';
+        }
+        return childView.charAt(local);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || start > end || end > length) {
+            throw new IndexOutOfBoundsException("Range [" + start + ", " + end + ") out of bounds for length " + length);
+        }
+        return new Slice(this, start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder(length);
+        try {
+            component.appendTo(stringBuilder);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return stringBuilder.toString();
+    }
+
+    private void indexChildren() {
+        ComponentType type = component.getTypeOfTextComponent();
+        int separator = type == ComponentType.TEXT ? TEXT_SEPARATOR.length() : type == ComponentType.SENTENCE ? 1 : 0;
+        List<CommonText> nonNullChildren = new ArrayList<>(component.getComponentsSize());
+        for (int i = 0; i < component.getComponentsSize(); i++) {
+            if (component.getComponent(i) != null) {
+                nonNullChildren.add(component.getComponent(i));
+            }
+        }
+
+        int[] ends = new int[nonNullChildren.size()];
+        int end = 0;
+        for (int i = 0; i < ends.length; i++) {
+            end += renderedLength(nonNullChildren.get(i)) + separator;
+            ends[i] = end;
+        }
+        children = nonNullChildren;
+        childViews = new TextView[ends.length];
+        childEnds = ends;
+    }
+
+    private int findChild(int index) {
+        int low = 0;
+        int high = childEnds.length - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (childEnds[middle] <= index) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private TextView childView(int child) {
+        if (childViews[child] == null) {
+            childViews[child] = new TextView(children.get(child));
+        }
+        return childViews[child];
+    }
+
+    private static int renderedLength(CommonText component) {
+        if (component instanceof TextComponent) {
+            return ((TextComponent) component).getRenderedLength();
+        }
+        if (component instanceof TextLetter || component instanceof TextSign) {
+            return 1;
+        }
+        return component.getTextMessage().length();
+    }
+
+    private static final class Slice implements CharSequence {
+        private final CharSequence source;
+        private final int offset;
+        private final int length;
+
+        private Slice(CharSequence source, int offset, int length) {
+            this.source = source;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + length);
+            }
+            return source.charAt(offset + index);
+        }
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            if (start < 0 || start > end || end > length) {
+                throw new IndexOutOfBoundsException("Range [" + start + ", " + end + ") out of bounds for length " + length);
+            }
+            return new Slice(source, offset + start, end - start);
+        }
+        @Override
+        public String toString() {
+            return new StringBuilder(length).append(this, 0, length).toString();
+        }
+    }
+
+}
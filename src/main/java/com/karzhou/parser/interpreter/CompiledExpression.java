@@ -0,0 +1,157 @@
+package com.karzhou.parser.interpreter;
+
+import java.util.Arrays;
+
+import static com.karzhou.parser.interpreter.MathOperations.*;
+
+/**
+ * Polish notation turned once into an int program: every operation is an opcode,
+ * a number is {@code PUSH} followed by its value. Evaluation runs on a plain
+ * {@code int[]} stack, so repeated evaluations don't re-split the notation or box values.
+ */
+public class CompiledExpression {
+    private static final String SPLIT_REGEX = "\\p{Blank}+";
+
+    private static final int PUSH = 0;
+    private static final int AND = 1;
+    private static final int LEFT_SHIFT = 2;
+    private static final int RIGHT_SHIFT = 3;
+    private static final int TILDE = 4;
+    private static final int OR = 5;
+    private static final int XOR = 6;
+    private static final int PLUS = 7;
+    private static final int MINUS = 8;
+    private static final int MULTIPLY = 9;
+    private static final int DIVISION = 10;
+
+    private final int[] program;
+    private final int stackSize;
+
+    private CompiledExpression(int[] program, int stackSize) {
+        this.program = program;
+        this.stackSize = stackSize;
+    }
+
+    public static CompiledExpression compile(String polishNotation) {
+        String[] tokens = polishNotation.split(SPLIT_REGEX);
+        int[] program = new int[tokens.length * 2];
+        int length = 0;
+        int depth = 0;
+        int maxDepth = 0;
+
+        for (String token : tokens) {
+            int operation = operationOf(token);
+            int arity = arityOf(operation);
+            if (depth < arity) {
+                throw new IllegalArgumentException("Not enough operands for '" + token + "' in: " + polishNotation);
+            }
+            program[length++] = operation;
+            if (operation == PUSH) {
+                program[length++] = Integer.parseInt(token);
+            }
+            depth = depth - arity + 1;
+            maxDepth = Math.max(maxDepth, depth);
+        }
+        if (depth == 0) {
+            throw new IllegalArgumentException("Polish notation has no result: " + polishNotation);
+        }
+
+        return new CompiledExpression(Arrays.copyOf(program, length), maxDepth);
+    }
+
+    public int evaluate() {
+        int[] stack = new int[stackSize];
+        int top = -1;
+        int right;
+
+        for (int i = 0; i < program.length; i++) {
+            switch (program[i]) {
+                case PUSH:
+                    stack[++top] = program[++i];
+                    break;
+                case AND:
+                    right = stack[top--];
+                    stack[top] &= right;
+                    break;
+                case LEFT_SHIFT:
+                    right = stack[top--];
+                    stack[top] <<= right;
+                    break;
+                case RIGHT_SHIFT:
+                    right = stack[top--];
+                    stack[top] >>= right;
+                    break;
+                case TILDE:
+                    stack[top] = ~stack[top];
+                    break;
+                case OR:
+                    right = stack[top--];
+                    stack[top] |= right;
+                    break;
+                case XOR:
+                    right = stack[top--];
+                    stack[top] ^= right;
+                    break;
+                case PLUS:
+                    right = stack[top--];
+                    stack[top] += right;
+                    break;
+                case MINUS:
+                    right = stack[top--];
+                    stack[top] -= right;
+                    break;
+                case MULTIPLY:
+                    right = stack[top--];
+                    stack[top] *= right;
+                    break;
+                case DIVISION:
+                    right = stack[top--];
+                    stack[top] = 1 / right * stack[top];
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown operation code: " + program[i]);
+            }
+        }
+
+        return stack[top];
+    }
+
+    private static int operationOf(String token) {
+        switch (token) {
+            case AND_SIGN:
+                return AND;
+            case LEFT_SHIFT_SIGN:
+                return LEFT_SHIFT;
+            case RIGHT_SHIFT_SIGN:
+                return RIGHT_SHIFT;
+            case TILDE_SIGN:
+                return TILDE;
+            case OR_SIGN:
+                return OR;
+            case XOR_SIGN:
+                return XOR;
+            case PLUS_SIGN:
+                return PLUS;
+            case MINUS_SIGN:
+                return MINUS;
+            case MULTIPLY_SIGN:
+                return MULTIPLY;
+            case DIVISION_SIGN:
+                return DIVISION;
+            default:
+                return PUSH;
+        }
+    }
+
+    private static int arityOf(int operation) {
+        switch (operation) {
+            case PUSH:
+                return 0;
+            case TILDE:
+                return 1;
+            default:
+                return 2;
+        }
+    }
+
+}
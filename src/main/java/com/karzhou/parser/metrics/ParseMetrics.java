@@ -0,0 +1,183 @@
+package com.karzhou.parser.metrics;
+
+import com.karzhou.parser.composite.CommonText;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and timers of the parsing pipeline, shared by all parsers of the application.
+ * Recording is a few {@link LongAdder} increments, so parser threads don't contend on it.
+ * The values can be read through the getters or through JMX after {@link #registerMBean()}.
+ */
+public class ParseMetrics implements ParseMetricsMBean {
+    private static final Logger LOGGER = LogManager.getLogger(ParseMetrics.class);
+    public static final String OBJECT_NAME = "com.karzhou.parser:type=ParseMetrics";
+    private static final ParseMetrics INSTANCE = new ParseMetrics();
+    private static final double NANOS_IN_SECOND = 1e9;
+    private static final double NANOS_IN_MILLISECOND = 1e6;
+    private static final double NANOS_IN_MICROSECOND = 1e3;
+
+    private final LongAdder paragraphs = new LongAdder();
+    private final LongAdder sentences = new LongAdder();
+    private final LongAdder lexemes = new LongAdder();
+    private final LongAdder parsedChars = new LongAdder();
+    private final LongAdder parseNanos = new LongAdder();
+    private final LongAdder bytesRead = new LongAdder();
+    private final LongAdder readNanos = new LongAdder();
+    private final LongAdder expressions = new LongAdder();
+    private final LongAdder expressionNanos = new LongAdder();
+
+    public static ParseMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    public static synchronized void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(INSTANCE, name);
+            }
+        } catch (JMException e) {
+            LOGGER.error("Parse metrics can't be registered in JMX", e);
+        }
+    }
+
+    /**
+     * Records a parsed TEXT, PARAGRAPH or SENTENCE component with all its paragraphs, sentences and lexemes.
+     */
+    public void recordParse(CommonText component, int chars, long nanos) {
+        int paragraphCount = 0;
+        int sentenceCount = 0;
+        int lexemeCount = 0;
+        switch (component.getTypeOfTextComponent()) {
+            case TEXT:
+                paragraphCount = component.getComponentsSize();
+                for (int i = 0; i < paragraphCount; i++) {
+                    CommonText paragraph = component.getComponent(i);
+                    sentenceCount += paragraph.getComponentsSize();
+                    lexemeCount += countLexemes(paragraph);
+                }
+                break;
+            case PARAGRAPH:
+                paragraphCount = 1;
+                sentenceCount = component.getComponentsSize();
+                lexemeCount = countLexemes(component);
+                break;
+            default:
+                sentenceCount = 1;
+                lexemeCount = component.getComponentsSize();
+        }
+        recordParse(paragraphCount, sentenceCount, lexemeCount, chars, nanos);
+    }
+
+    public void recordParse(int paragraphs, int sentences, int lexemes, int chars, long nanos) {
+        this.paragraphs.add(paragraphs);
+        this.sentences.add(sentences);
+        this.lexemes.add(lexemes);
+        this.parsedChars.add(chars);
+        this.parseNanos.add(nanos);
+    }
+
+    public void recordRead(int bytes, long nanos) {
+        bytesRead.add(bytes);
+        readNanos.add(nanos);
+    }
+
+    public void recordExpression(long nanos) {
+        expressions.increment();
+        expressionNanos.add(nanos);
+    }
+
+    @Override
+    public long getParagraphs() {
+        return paragraphs.sum();
+    }
+    @Override
+    public long getSentences() {
+        return sentences.sum();
+    }
+    @Override
+    public long getLexemes() {
+        return lexemes.sum();
+    }
+    @Override
+    public long getParsedChars() {
+        return parsedChars.sum();
+    }
+    @Override
+    public long getBytesRead() {
+        return bytesRead.sum();
+    }
+    @Override
+    public long getExpressions() {
+        return expressions.sum();
+    }
+    @Override
+    public double getParseTimeMillis() {
+        return parseNanos.sum() / NANOS_IN_MILLISECOND;
+    }
+    @Override
+    public double getSentencesPerSecond() {
+        return perSecond(sentences.sum(), parseNanos.sum());
+    }
+    @Override
+    public double getCharsPerSecond() {
+        return perSecond(parsedChars.sum(), parseNanos.sum());
+    }
+    @Override
+    public double getBytesPerSecond() {
+        return perSecond(bytesRead.sum(), readNanos.sum());
+    }
+    @Override
+    public double getMeanLexemesPerSentence() {
+        long sentenceCount = sentences.sum();
+        return sentenceCount == 0 ? 0 : (double) lexemes.sum() / sentenceCount;
+    }
+    @Override
+    public double getMeanExpressionEvaluationMicros() {
+        long expressionCount = expressions.sum();
+        return expressionCount == 0 ? 0 : expressionNanos.sum() / NANOS_IN_MICROSECOND / expressionCount;
+    }
+    @Override
+    public void reset() {
+        paragraphs.reset();
+        sentences.reset();
+        lexemes.reset();
+        parsedChars.reset();
+        parseNanos.reset();
+        bytesRead.reset();
+        readNanos.reset();
+        expressions.reset();
+        expressionNanos.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("paragraphs=%d, sentences=%d, lexemes=%d, chars=%d, parse=%.1f ms, "
+                        + "sentences/s=%.0f, chars/s=%.0f, bytes/s=%.0f, lexemes/sentence=%.2f, "
+                        + "expressions=%d, expression evaluation=%.3f us",
+                getParagraphs(), getSentences(), getLexemes(), getParsedChars(), getParseTimeMillis(),
+                getSentencesPerSecond(), getCharsPerSecond(), getBytesPerSecond(), getMeanLexemesPerSentence(),
+                getExpressions(), getMeanExpressionEvaluationMicros());
+    }
+
+    private static int countLexemes(CommonText paragraph) {
+        int lexemeCount = 0;
+        for (int i = 0; i < paragraph.getComponentsSize(); i++) {
+            lexemeCount += paragraph.getComponent(i).getComponentsSize();
+        }
+        return lexemeCount;
+    }
+
+    private static double perSecond(long count, long nanos) {
+        return nanos == 0 ? 0 : count * NANOS_IN_SECOND / nanos;
+    }
+
+}
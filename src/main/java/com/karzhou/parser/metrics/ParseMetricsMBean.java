@@ -0,0 +1,19 @@
+package com.karzhou.parser.metrics;
+
+public interface ParseMetricsMBean {
+
+    long getParagraphs();
+    long getSentences();
+    long getLexemes();
+    long getParsedChars();
+    long getBytesRead();
+    long getExpressions();
+    double getParseTimeMillis();
+    double getSentencesPerSecond();
+    double getCharsPerSecond();
+    double getBytesPerSecond();
+    double getMeanLexemesPerSentence();
+    double getMeanExpressionEvaluationMicros();
+    void reset();
+
+}
@@ -0,0 +1,61 @@
+package com.karzhou.parser.parser;
+
+import com.karzhou.parser.composite.impl.CompactText;
+
+class CompactTextBuilder implements TextTreeBuilder<CompactText> {
+    private static final int AVERAGE_WORD_LENGTH = 6;
+    private final char[] chars;
+    private final IntArrayList paragraphSentences = new IntArrayList();
+    private final IntArrayList sentenceLexemes = new IntArrayList();
+    private final IntArrayList lexemeChildren;
+    private final IntArrayList children;
+    private final IntArrayList wordStarts;
+    private final IntArrayList wordEnds;
+
+    CompactTextBuilder(String text) {
+        this.chars = text.toCharArray();
+        int expectedWords = chars.length / AVERAGE_WORD_LENGTH;
+        this.lexemeChildren = new IntArrayList(expectedWords);
+        this.children = new IntArrayList(expectedWords);
+        this.wordStarts = new IntArrayList(expectedWords);
+        this.wordEnds = new IntArrayList(expectedWords);
+    }
+
+    @Override
+    public void paragraph() {
+        paragraphSentences.add(sentenceLexemes.size());
+    }
+
+    @Override
+    public void sentence() {
+        sentenceLexemes.add(lexemeChildren.size());
+    }
+
+    @Override
+    public void lexeme() {
+        lexemeChildren.add(children.size());
+    }
+
+    @Override
+    public void word(int start, int end) {
+        children.add(wordStarts.size());
+        wordStarts.add(start);
+        wordEnds.add(end);
+    }
+
+    @Override
+    public void sign(int position) {
+        children.add(~position);
+    }
+
+    @Override
+    public CompactText build() {
+        paragraphSentences.add(sentenceLexemes.size());
+        sentenceLexemes.add(lexemeChildren.size());
+        lexemeChildren.add(children.size());
+
+        return new CompactText(chars, paragraphSentences.toArray(), sentenceLexemes.toArray(),
+                lexemeChildren.toArray(), children.toArray(), wordStarts.toArray(), wordEnds.toArray());
+    }
+
+}
@@ -0,0 +1,101 @@
+package com.karzhou.parser.parser;
+
+import com.karzhou.parser.composite.CommonText;
+import com.karzhou.parser.composite.ComponentType;
+import com.karzhou.parser.composite.impl.TextComponent;
+import com.karzhou.parser.composite.impl.TextLetter;
+import com.karzhou.parser.composite.impl.TextSign;
+
+/**
+ * With an interner, leaves are shared per char and lexemes/sentences are added to their
+ * parent only when they are complete, so the parent receives the interned instance.
+ */
+class ComponentTreeBuilder implements TextTreeBuilder<TextComponent> {
+    private final String text;
+    private final SubtreeInterner interner;
+    private final TextComponent result = new TextComponent(ComponentType.TEXT);
+    private TextComponent paragraph;
+    private TextComponent sentence;
+    private TextComponent lexeme;
+
+    ComponentTreeBuilder(String text) {
+        this(text, null);
+    }
+
+    ComponentTreeBuilder(String text, SubtreeInterner interner) {
+        this.text = text;
+        this.interner = interner;
+    }
+
+    @Override
+    public void paragraph() {
+        closeSentence();
+        paragraph = new TextComponent(ComponentType.PARAGRAPH);
+        result.addComponent(paragraph);
+    }
+
+    @Override
+    public void sentence() {
+        closeSentence();
+        sentence = new TextComponent(ComponentType.SENTENCE);
+        if (interner == null) {
+            paragraph.addComponent(sentence);
+        }
+    }
+
+    @Override
+    public void lexeme() {
+        closeLexeme();
+        lexeme = new TextComponent(ComponentType.LEXEME);
+        if (interner == null) {
+            sentence.addComponent(lexeme);
+        }
+    }
+
+    @Override
+    public void word(int start, int end) {
+        TextComponent word = new TextComponent(ComponentType.WORD);
+        for (int i = start; i < end; i++) {
+            word.addComponent(leaf(text.charAt(i)));
+        }
+        lexeme.addComponent(interner == null ? word : interner.intern(word));
+    }
+
+    @Override
+    public void sign(int position) {
+        char c = text.charAt(position);
+        lexeme.addComponent(interner == null ? new TextSign(c) : TextSign.valueOf(c));
+    }
+
+    @Override
+    public TextComponent build() {
+        closeSentence();
+        for (int i = 0; i < result.getComponentsSize(); i++) {
+            ((TextComponent) result.getComponent(i)).freeze();
+        }
+        return result;
+    }
+
+    private CommonText leaf(char c) {
+        if (interner == null) {
+            return TextLexer.isLetter(c) ? new TextLetter(c) : new TextSign(c);
+        }
+        return TextLexer.isLetter(c) ? TextLetter.valueOf(c) : TextSign.valueOf(c);
+    }
+
+    private void closeLexeme() {
+        if (interner != null && lexeme != null) {
+            sentence.addComponent(interner.intern(lexeme));
+        }
+        lexeme = null;
+    }
+
+    private void closeSentence() {
+        closeLexeme();
+        if (interner != null && sentence != null) {
+            paragraph.addComponent(interner.intern(sentence));
+        }
+        sentence = null;
+    }
+
+}
@@ -0,0 +1,184 @@
+package com.karzhou.parser.parser;
+
+import com.karzhou.parser.composite.CommonText;
+import com.karzhou.parser.composite.impl.TextComponent;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Keeps a parsed text together with its source and the source span of every paragraph,
+ * so an edit only re-parses the paragraphs around it and splices them into the tree.
+ * <p>
+ * The re-parsed window always starts and ends at paragraph borders the edit can't move:
+ * a paragraph whose first non-whitespace char precedes the edit on the left and one whose
+ * last non-whitespace char follows it on the right. Inside such a window {@link TextLexer}
+ * produces exactly what a full parse of the edited text would produce.
+ */
+public class IncrementalTextParser {
+    private static final Logger LOGGER = LogManager.getLogger(IncrementalTextParser.class);
+    private static final int PARAGRAPH_DELIMITER_LENGTH = 4;
+    private static final int NOT_FOUND = -1;
+
+    private final TextLexer textLexer = new TextLexer();
+    private final StringBuilder source;
+    private final TextComponent text;
+    private int[] paragraphStarts;
+    private int[] paragraphEnds;
+
+    public IncrementalTextParser(String source) {
+        this.source = new StringBuilder(source);
+        this.text = textLexer.parse(source);
+        int[][] spans = paragraphSpans(source, 0);
+        this.paragraphStarts = spans[0];
+        this.paragraphEnds = spans[1];
+    }
+
+    public TextComponent getText() {
+        return text;
+    }
+
+    public String getSource() {
+        return source.toString();
+    }
+
+    public TextComponent applyEdit(int offset, int removedLength, String insertedText) {
+        if (offset < 0 || removedLength < 0 || offset + removedLength > source.length()) {
+            throw new IndexOutOfBoundsException("Edit [" + offset + ", " + (offset + removedLength)
+                    + ") is out of text of length " + source.length());
+        }
+        int oldLength = source.length();
+        int editEnd = offset + removedLength;
+        int delta = insertedText.length() - removedLength;
+        int last = paragraphStarts.length - 1;
+
+        int first = last < 0 ? 0 : findParagraph(offset);
+        while (first > 0 && !isLeftBorder(first, offset)) {
+            first--;
+        }
+        int end = last < 0 ? 0 : findParagraph(editEnd);
+        while (end < last && !isRightBorder(end, editEnd)) {
+            end++;
+        }
+
+        int windowStart = first == 0 ? 0 : paragraphStarts[first];
+        int windowEnd = end >= last ? oldLength : paragraphEnds[end];
+
+        source.replace(offset, editEnd, insertedText);
+        String window = source.substring(windowStart, windowEnd + delta);
+        TextComponent parsed = textLexer.parse(window);
+
+        List<CommonText> paragraphs = new ArrayList<>(parsed.getComponentsSize());
+        for (int i = 0; i < parsed.getComponentsSize(); i++) {
+            paragraphs.add(parsed.getComponent(i));
+        }
+        int replacedEnd = Math.min(end + 1, last + 1);
+        text.replaceComponents(first, replacedEnd, paragraphs);
+        spliceSpans(first, replacedEnd, paragraphSpans(window, windowStart), delta);
+
+        LOGGER.debug("Edit at {} re-parsed {} of {} chars", offset, window.length(), source.length());
+        return text;
+    }
+
+    private int findParagraph(int position) {
+        int index = Arrays.binarySearch(paragraphStarts, position);
+        if (index < 0) {
+            index = -index - 2;
+        }
+        return Math.max(index, 0);
+    }
+
+    private boolean isLeftBorder(int paragraph, int editStart) {
+        int firstChar = firstNonWhitespace(paragraph);
+        return firstChar != NOT_FOUND && firstChar < editStart;
+    }
+
+    private boolean isRightBorder(int paragraph, int editEnd) {
+        int lastChar = lastNonWhitespace(paragraph);
+        return lastChar != NOT_FOUND && lastChar >= editEnd;
+    }
+
+    private int firstNonWhitespace(int paragraph) {
+        for (int i = paragraphStarts[paragraph]; i < paragraphEnds[paragraph]; i++) {
+            if (!TextLexer.isWhitespace(source.charAt(i))) {
+                return i;
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    private int lastNonWhitespace(int paragraph) {
+        for (int i = paragraphEnds[paragraph] - 1; i >= paragraphStarts[paragraph]; i--) {
+            if (!TextLexer.isWhitespace(source.charAt(i))) {
+                return i;
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    private void spliceSpans(int from, int to, int[][] replacement, int delta) {
+        int count = paragraphStarts.length - (to - from) + replacement[0].length;
+        int[] starts = new int[count];
+        int[] ends = new int[count];
+
+        System.arraycopy(paragraphStarts, 0, starts, 0, from);
+        System.arraycopy(paragraphEnds, 0, ends, 0, from);
+        System.arraycopy(replacement[0], 0, starts, from, replacement[0].length);
+        System.arraycopy(replacement[1], 0, ends, from, replacement[1].length);
+        for (int i = to, j = from + replacement[0].length; i < paragraphStarts.length; i++, j++) {
+            starts[j] = paragraphStarts[i] + delta;
+            ends[j] = paragraphEnds[i] + delta;
+        }
+
+        paragraphStarts = starts;
+        paragraphEnds = ends;
+    }
+
+    /**
+     * Source spans of the pieces {@code text.split("\\s{4}")} would return, shifted by {@code offset}.
+     */
+    private static int[][] paragraphSpans(CharSequence text, int offset) {
+        IntArrayList starts = new IntArrayList();
+        IntArrayList ends = new IntArrayList();
+        int nonEmptyPieces = 0;
+        boolean delimiterFound = false;
+        int pieceStart = 0;
+        int i = 0;
+
+        while (i < text.length()) {
+            if (!TextLexer.isWhitespace(text.charAt(i))) {
+                i++;
+                continue;
+            }
+            int runEnd = i + 1;
+            while (runEnd < text.length() && TextLexer.isWhitespace(text.charAt(runEnd))) {
+                runEnd++;
+            }
+            int delimiters = (runEnd - i) / PARAGRAPH_DELIMITER_LENGTH;
+            int delimiterStart = i;
+            for (int d = 0; d < delimiters; d++) {
+                delimiterFound = true;
+                starts.add(offset + pieceStart);
+                ends.add(offset + delimiterStart);
+                if (delimiterStart > pieceStart) {
+                    nonEmptyPieces = starts.size();
+                }
+                pieceStart = delimiterStart + PARAGRAPH_DELIMITER_LENGTH;
+                delimiterStart = pieceStart;
+            }
+            i = runEnd;
+        }
+        starts.add(offset + pieceStart);
+        ends.add(offset + text.length());
+        if (text.length() > pieceStart) {
+            nonEmptyPieces = starts.size();
+        }
+
+        int count = delimiterFound ? nonEmptyPieces : 1;
+        return new int[][]{Arrays.copyOf(starts.toArray(), count), Arrays.copyOf(ends.toArray(), count)};
+    }
+
+}
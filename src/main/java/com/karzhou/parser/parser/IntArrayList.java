@@ -0,0 +1,33 @@
+package com.karzhou.parser.parser;
+
+import java.util.Arrays;
+
+class IntArrayList {
+    private static final int DEFAULT_CAPACITY = 16;
+    private int[] values;
+    private int size;
+
+    IntArrayList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    IntArrayList(int capacity) {
+        values = new int[Math.max(capacity, 1)];
+    }
+
+    void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size + (size >> 1) + 1);
+        }
+        values[size++] = value;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+}
@@ -8,15 +8,14 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class LexemeParser implements TextParser {
-    private static final String WORD_REGEXP = "[\\w)('][\\w-)(']*";
+    private static final Pattern WORD_PATTERN = Pattern.compile("[\\w)('][\\w-)(']*");
     private WordParser wordParser = new WordParser();
 
     @Override
     public TextComponent parse(String lexeme) {
         TextComponent textComponent = new TextComponent(ComponentType.LEXEME);
 
-        Pattern pattern = Pattern.compile(WORD_REGEXP);
-        Matcher matcher = pattern.matcher(lexeme);
+        Matcher matcher = WORD_PATTERN.matcher(lexeme);
         String word = "";
         while(matcher.find()){
             word = matcher.group();
@@ -0,0 +1,222 @@
+package com.karzhou.parser.parser;
+
+import com.karzhou.parser.composite.impl.TextComponent;
+import com.karzhou.parser.snapshot.TextSnapshot;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Parsed paragraphs keyed by a 64-bit FNV-1a hash of their raw text, so paragraphs that
+ * didn't change between parses reuse their subtrees. The cache is bounded by the total
+ * length of the cached paragraphs and evicts the least recently used ones; with a spill
+ * directory evicted paragraphs are kept there as {@link TextSnapshot} files next to their
+ * source text, which is compared with the paragraph before a spilled tree is used.
+ * <p>
+ * Cached paragraphs are shared between the texts they were returned to and must not be modified.
+ */
+public class ParagraphParseCache {
+    private static final Logger LOGGER = LogManager.getLogger(ParagraphParseCache.class);
+    public static final long DEFAULT_MAX_CHARS = 16L * 1024 * 1024;
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final String SPILL_FILE_FORMAT = "%016x-%d.snap";
+    private static final String SOURCE_FILE_FORMAT = "%016x-%d.src";
+
+    private final Map<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final long maxChars;
+    private final Path spillDirectory;
+    private long chars;
+    private long hits;
+    private long diskHits;
+    private long misses;
+    private long evictions;
+
+    public ParagraphParseCache() {
+        this(DEFAULT_MAX_CHARS);
+    }
+
+    public ParagraphParseCache(long maxChars) {
+        this(maxChars, null);
+    }
+
+    public ParagraphParseCache(long maxChars, Path spillDirectory) {
+        if (maxChars <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive: " + maxChars);
+        }
+        if (spillDirectory != null && !Files.isDirectory(spillDirectory)) {
+            throw new IllegalArgumentException("Spill directory doesn't exist: " + spillDirectory);
+        }
+        this.maxChars = maxChars;
+        this.spillDirectory = spillDirectory;
+    }
+
+    public TextComponent parse(String paragraph, Function<String, TextComponent> parser) {
+        long hash = hash(paragraph);
+        synchronized (this) {
+            Entry entry = entries.get(hash);
+            if (entry != null && entry.source.equals(paragraph)) {
+                hits++;
+                return entry.paragraph;
+            }
+        }
+
+        TextComponent parsed = loadSpilled(hash, paragraph);
+        synchronized (this) {
+            if (parsed != null) {
+                diskHits++;
+            }
+            else {
+                misses++;
+            }
+        }
+        if (parsed == null) {
+            parsed = parser.apply(paragraph);
+        }
+
+        spill(put(hash, paragraph, parsed));
+        return parsed;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+    public synchronized long getDiskHits() {
+        return diskHits;
+    }
+    public synchronized long getMisses() {
+        return misses;
+    }
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+    public synchronized int size() {
+        return entries.size();
+    }
+    /**
+     * Total length of the cached paragraphs.
+     */
+    public synchronized long getChars() {
+        return chars;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "ParagraphParseCache{hits=" + hits + ", diskHits=" + diskHits + ", misses=" + misses +
+                ", evictions=" + evictions + ", size=" + entries.size() + ", chars=" + chars + "}";
+    }
+
+    private synchronized List<Map.Entry<Long, Entry>> put(long hash, String paragraph, TextComponent parsed) {
+        Entry replaced = entries.put(hash, new Entry(paragraph, parsed));
+        if (replaced != null) {
+            chars -= replaced.source.length();
+        }
+        chars += paragraph.length();
+
+        List<Map.Entry<Long, Entry>> evicted = new ArrayList<>();
+        Iterator<Map.Entry<Long, Entry>> iterator = entries.entrySet().iterator();
+        while (chars > maxChars && iterator.hasNext()) {
+            Map.Entry<Long, Entry> eldest = iterator.next();
+            iterator.remove();
+            chars -= eldest.getValue().source.length();
+            evictions++;
+            evicted.add(eldest);
+        }
+        return evicted;
+    }
+
+    // Spilling is best effort: a paragraph that can't be written is simply parsed again next time.
+    private void spill(List<Map.Entry<Long, Entry>> evicted) {
+        if (spillDirectory == null) {
+            return;
+        }
+        for (Map.Entry<Long, Entry> entry : evicted) {
+            String source = entry.getValue().source;
+            Path file = spillFile(SPILL_FILE_FORMAT, entry.getKey(), source.length());
+            if (Files.exists(file)) {
+                continue;
+            }
+            try {
+                writeSource(spillFile(SOURCE_FILE_FORMAT, entry.getKey(), source.length()), source);
+                TextSnapshot.write(entry.getValue().paragraph, file, entry.getKey());
+            } catch (IOException | RuntimeException e) {
+                LOGGER.warn("Paragraph can't be spilled: {}", file, e);
+            }
+        }
+    }
+
+    private TextComponent loadSpilled(long hash, String paragraph) {
+        if (spillDirectory == null) {
+            return null;
+        }
+        Path file = spillFile(SPILL_FILE_FORMAT, hash, paragraph.length());
+        try {
+            if (!Files.isRegularFile(file) || !sourceMatches(spillFile(SOURCE_FILE_FORMAT, hash, paragraph.length()), paragraph)) {
+                return null;
+            }
+            return TextSnapshot.load(file, hash);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Spilled paragraph can't be read: {}", file, e);
+            return null;
+        }
+    }
+
+    private Path spillFile(String format, long hash, int length) {
+        return spillDirectory.resolve(String.format(format, hash, length));
+    }
+
+    // The source is kept as raw UTF-16 chars, so every paragraph compares exactly after a round trip.
+    // Every writer gets its own temp file, so threads that evict the same paragraph don't collide.
+    private void writeSource(Path file, String source) throws IOException {
+        Path tempFile = Files.createTempFile(spillDirectory, file.getFileName() + ".", ".tmp");
+        try {
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                output.writeChars(source);
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private static boolean sourceMatches(Path file, String paragraph) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return false;
+        }
+        CharBuffer source = ByteBuffer.wrap(Files.readAllBytes(file)).asCharBuffer();
+        return source.equals(CharBuffer.wrap(paragraph));
+    }
+
+    private static long hash(String paragraph) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < paragraph.length(); i++) {
+            hash = (hash ^ paragraph.charAt(i)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private static final class Entry {
+        private final String source;
+        private final TextComponent paragraph;
+
+        private Entry(String source, TextComponent paragraph) {
+            this.source = source;
+            this.paragraph = paragraph;
+        }
+    }
+
+}
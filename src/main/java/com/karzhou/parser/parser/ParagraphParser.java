@@ -1,30 +1,40 @@
 package com.karzhou.parser.parser;
 
 import com.karzhou.parser.composite.impl.TextComponent;
-import com.karzhou.parser.composite.ComponentType;
+import com.karzhou.parser.metrics.ParseMetrics;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-
 public class ParagraphParser implements TextParser {
     private static final Logger LOGGER = LogManager.getLogger(ParagraphParser.class);
-    private static final String SPLIT_ON_SENTENCES_REGEXP = "(?<=[.{1}!?])\\s";
-    private SentenceParser sentenceParser = new SentenceParser();
+    private final TextLexer textLexer;
+    private final ParagraphParseCache cache;
 
-    @Override
-    public TextComponent parse(String paragraph) {
-        TextComponent textComponent = new TextComponent(ComponentType.PARAGRAPH);
+    public ParagraphParser() {
+        this(null, null);
+    }
 
-        List<String> allStr = new ArrayList<>(Arrays.asList(paragraph.split(SPLIT_ON_SENTENCES_REGEXP)));
+    public ParagraphParser(ParagraphParseCache cache) {
+        this(cache, null);
+    }
 
-        for(String s : allStr){
-            textComponent.addComponent(sentenceParser.parse(s));
-        }
+    /**
+     * Both the cache and the interner may be {@code null}.
+     */
+    public ParagraphParser(ParagraphParseCache cache, SubtreeInterner interner) {
+        this.cache = cache;
+        this.textLexer = new TextLexer(interner);
+    }
+
+    @Override
+    public TextComponent parse(String paragraph) {
+        long start = System.nanoTime();
+        TextComponent textComponent = cache == null
+                ? textLexer.parseParagraph(paragraph)
+                : cache.parse(paragraph, textLexer::parseParagraph);
 
-        LOGGER.info("Paragraph was parsed on sentences");
+        ParseMetrics.getInstance().recordParse(textComponent, paragraph.length(), System.nanoTime() - start);
+        LOGGER.debug("Paragraph was parsed on sentences");
 
         return textComponent;
     }
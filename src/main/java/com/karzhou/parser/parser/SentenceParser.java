@@ -2,30 +2,34 @@ package com.karzhou.parser.parser;
 
 import com.karzhou.parser.composite.impl.TextComponent;
 import com.karzhou.parser.composite.ComponentType;
+import com.karzhou.parser.metrics.ParseMetrics;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.regex.Pattern;
 
 public class SentenceParser implements TextParser {
     private static final Logger LOGGER = LogManager.getLogger(SentenceParser.class);
-    private static final String SPLIT_ON_LEXEME_REGEXP = "\\s+(?=[\\w-(])";
+    private static final Pattern SPLIT_ON_LEXEME_PATTERN = Pattern.compile("\\s+(?=[\\w-(])");
     private LexemeParser lexemeParser = new LexemeParser();
 
     @Override
     public TextComponent parse(String sentence) {
+        long start = System.nanoTime();
         TextComponent textComponent = new TextComponent(ComponentType.SENTENCE);
 
-        List<String> allStr = new ArrayList<>(Arrays.asList(sentence.split(SPLIT_ON_LEXEME_REGEXP)));
+        List<String> allStr = new ArrayList<>(Arrays.asList(SPLIT_ON_LEXEME_PATTERN.split(sentence)));
         allStr.removeIf(o -> o.equals(""));
 
         for(String s : allStr){
             textComponent.addComponent(lexemeParser.parse(s));
         }
 
-        LOGGER.info("Sentence was parsed on lexemes");
+        ParseMetrics.getInstance().recordParse(textComponent, sentence.length(), System.nanoTime() - start);
+        LOGGER.debug("Sentence was parsed on lexemes");
 
         return textComponent;
     }
@@ -0,0 +1,121 @@
+package com.karzhou.parser.parser;
+
+import com.karzhou.parser.composite.CommonText;
+import com.karzhou.parser.composite.ComponentType;
+import com.karzhou.parser.composite.impl.TextComponent;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Shares identical subtrees between parsed texts. Components are interned bottom-up:
+ * WORDs first, then (optionally) LEXEMEs and SENTENCEs, so the children of a node are
+ * already canonical and two nodes are equal when their children are the same instances.
+ * Lookup and comparison therefore look only at the direct children of a node.
+ * <p>
+ * Interned components are frozen and may be shared by many trees and threads.
+ * The table holds its components strongly and stops taking new ones at {@code maxSize}
+ * (components are then returned frozen but not shared); an interner is meant to live for
+ * one document or one batch of related documents and to be dropped or {@link #clear() cleared} after it.
+ */
+public class SubtreeInterner {
+    public static final int DEFAULT_MAX_SIZE = 1 << 20;
+    private final ConcurrentMap<Key, TextComponent> table = new ConcurrentHashMap<>();
+    private final ComponentType highestType;
+    private final int maxSize;
+
+    public SubtreeInterner() {
+        this(ComponentType.WORD);
+    }
+
+    public SubtreeInterner(ComponentType highestType) {
+        this(highestType, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * @param highestType WORD, LEXEME or SENTENCE; every level below it is interned too
+     * @param maxSize     number of distinct components kept, exceeded at most by concurrent inserts
+     */
+    public SubtreeInterner(ComponentType highestType, int maxSize) {
+        if (highestType.compareTo(ComponentType.SENTENCE) < 0) {
+            throw new IllegalArgumentException("Only WORD, LEXEME and SENTENCE can be interned: " + highestType);
+        }
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Interner size must be positive: " + maxSize);
+        }
+        this.highestType = highestType;
+        this.maxSize = maxSize;
+    }
+
+    public boolean isInterned(ComponentType type) {
+        return type.compareTo(highestType) >= 0;
+    }
+
+    /**
+     * @return the shared component equal to the given one, the given one (frozen) if it is the first,
+     * or the given one unchanged if its type is not interned
+     */
+    public TextComponent intern(TextComponent component) {
+        if (!isInterned(component.getTypeOfTextComponent())) {
+            return component;
+        }
+        component.freeze();
+        Key key = new Key(component);
+        // A node with a child that wasn't shared finds no equal entry and simply stays unshared.
+        TextComponent interned = table.size() < maxSize ? table.putIfAbsent(key, component) : table.get(key);
+        return interned == null ? component : interned;
+    }
+
+    public int size() {
+        return table.size();
+    }
+
+    public void clear() {
+        table.clear();
+    }
+
+    @Override
+    public String toString() {
+        return "SubtreeInterner{highestType=" + highestType + ", size=" + table.size() + ", maxSize=" + maxSize + "}";
+    }
+
+    private static final class Key {
+        private final TextComponent component;
+        private final int hash;
+
+        private Key(TextComponent component) {
+            this.component = component;
+            int hashCode = component.getTypeOfTextComponent().ordinal();
+            for (int i = 0; i < component.getComponentsSize(); i++) {
+                CommonText child = component.getComponent(i);
+                hashCode = 31 * hashCode + (child instanceof TextComponent ? System.identityHashCode(child) : child.hashCode());
+            }
+            this.hash = hashCode;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key that = (Key) o;
+            if (hash != that.hash
+                    || component.getTypeOfTextComponent() != that.component.getTypeOfTextComponent()
+                    || component.getComponentsSize() != that.component.getComponentsSize()) {
+                return false;
+            }
+            for (int i = 0; i < component.getComponentsSize(); i++) {
+                CommonText child = component.getComponent(i);
+                CommonText thatChild = that.component.getComponent(i);
+                if (child != thatChild && (child instanceof TextComponent || !child.equals(thatChild))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+}
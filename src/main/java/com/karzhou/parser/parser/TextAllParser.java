@@ -1,31 +1,110 @@
 package com.karzhou.parser.parser;
 
+import com.karzhou.parser.composite.CommonText;
 import com.karzhou.parser.composite.impl.TextComponent;
 import com.karzhou.parser.composite.ComponentType;
+import com.karzhou.parser.metrics.ParseMetrics;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
 
 public class TextAllParser implements TextParser {
     private static final Logger LOGGER = LogManager.getLogger(TextAllParser.class);
     private static final String SPLIT_ON_PARAGRAPHS_REGEXP = "\\s{4}";
-    private ParagraphParser paragraphParser = new ParagraphParser();
+    private final ParagraphParser paragraphParser;
+    private final TextLexer textLexer;
+    private final ExecutorService executor;
+    private final boolean cached;
+
+    public TextAllParser() {
+        this(null, null);
+    }
+
+    /**
+     * Paragraphs are parsed as independent tasks on the given executor
+     * (e.g. a {@link java.util.concurrent.ForkJoinPool} or a virtual-thread-per-task executor);
+     * the resulting paragraphs keep the order of the source text.
+     * The executor is owned by the caller and is not shut down by the parser.
+     */
+    public TextAllParser(ExecutorService executor) {
+        this(executor, null);
+    }
+
+    /**
+     * Paragraphs are looked up in the given cache before they are parsed;
+     * the executor may be {@code null} to parse on the calling thread.
+     */
+    public TextAllParser(ExecutorService executor, ParagraphParseCache cache) {
+        this(executor, cache, null);
+    }
+
+    /**
+     * Repeated words (and, depending on the interner, lexemes and sentences) of the parsed
+     * text share one frozen instance; the interner may be shared between parsers and threads.
+     * The interner keeps what it has seen while the parser lives, so a long-lived parser should get
+     * a bounded interner or be replaced (or the interner cleared) between unrelated documents.
+     */
+    public TextAllParser(ExecutorService executor, ParagraphParseCache cache, SubtreeInterner interner) {
+        this.executor = executor;
+        this.cached = cache != null;
+        this.paragraphParser = new ParagraphParser(cache, interner);
+        this.textLexer = new TextLexer(interner);
+    }
 
     @Override
     public TextComponent parse(String text) {
-        TextComponent textComponent = new TextComponent(ComponentType.TEXT);
+        if (executor == null && !cached) {
+            long start = System.nanoTime();
+            TextComponent textComponent = textLexer.parse(text);
+            ParseMetrics.getInstance().recordParse(textComponent, text.length(), System.nanoTime() - start);
+            LOGGER.debug("Text was parsed on paragraphs");
+            return textComponent;
+        }
 
         List<String> allStr = new ArrayList<>(Arrays.asList(text.split(SPLIT_ON_PARAGRAPHS_REGEXP)));
 
-        for(String s : allStr){
-            textComponent.addComponent(paragraphParser.parse(s));
+        return parseParagraphs(allStr.stream());
+    }
+
+    public TextComponent parseParagraphs(Stream<String> paragraphs) {
+        TextComponent textComponent = new TextComponent(ComponentType.TEXT);
+
+        if (executor == null) {
+            paragraphs.forEachOrdered(s -> textComponent.addComponent(paragraphParser.parse(s)));
         }
+        else {
+            List<Future<CommonText>> parsedParagraphs = new ArrayList<>();
+            paragraphs.forEachOrdered(s -> parsedParagraphs.add(executor.submit(() -> paragraphParser.parse(s))));
 
-        LOGGER.info("Text was parsed on paragraphs");
+            for (Future<CommonText> paragraph : parsedParagraphs) {
+                textComponent.addComponent(waitForParagraph(paragraph, parsedParagraphs));
+            }
+        }
+
+        LOGGER.debug("Text was parsed on paragraphs");
         return textComponent;
     }
 
+    private CommonText waitForParagraph(Future<CommonText> paragraph, List<Future<CommonText>> allParagraphs) {
+        try {
+            return paragraph.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            allParagraphs.forEach(o -> o.cancel(true));
+            LOGGER.error("Parsing of paragraphs was interrupted", e);
+            throw new RuntimeException("Parsing of paragraphs was interrupted", e);
+        } catch (ExecutionException e) {
+            allParagraphs.forEach(o -> o.cancel(true));
+            LOGGER.error("Paragraph can't be parsed", e.getCause());
+            throw new RuntimeException("Paragraph can't be parsed", e.getCause());
+        }
+    }
+
 }
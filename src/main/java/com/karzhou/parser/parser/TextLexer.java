@@ -0,0 +1,255 @@
+package com.karzhou.parser.parser;
+
+import com.karzhou.parser.composite.impl.CompactText;
+import com.karzhou.parser.composite.impl.TextComponent;
+
+/**
+ * Builds the whole TEXT -> PARAGRAPH -> SENTENCE -> LEXEME -> WORD tree in one scan
+ * over the characters. The produced tree is the same as the one built by the regex
+ * based parsers: paragraphs are split on {@code \s{4}}, sentences on whitespace after
+ * one of {@code [.{1}!?]}, lexemes on whitespace runs followed by {@code [\w-(]} and
+ * words are matched by {@code [\w)('][\w-)(']*}.
+ */
+public class TextLexer implements TextParser {
+    private static final int PARAGRAPH_DELIMITER_LENGTH = 4;
+
+    private static final byte WHITESPACE = 1;
+    private static final byte LETTER = 1 << 1;
+    private static final byte SENTENCE_END = 1 << 2;
+    private static final byte LEXEME_START = 1 << 3;
+    private static final byte WORD_START = 1 << 4;
+    private static final byte WORD_PART = 1 << 5;
+    private static final byte[] CHAR_CLASSES = new byte[128];
+
+    static {
+        for (char c : " \t\n\u000B\f\r".toCharArray()) {
+            CHAR_CLASSES[c] |= WHITESPACE;
+        }
+        for (char c = 0; c < CHAR_CLASSES.length; c++) {
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_') {
+                CHAR_CLASSES[c] |= LETTER | LEXEME_START | WORD_START | WORD_PART;
+            }
+        }
+        for (char c : ".{1}!?".toCharArray()) {
+            CHAR_CLASSES[c] |= SENTENCE_END;
+        }
+        for (char c : "-(".toCharArray()) {
+            CHAR_CLASSES[c] |= LEXEME_START;
+        }
+        for (char c : ")('".toCharArray()) {
+            CHAR_CLASSES[c] |= WORD_START;
+        }
+        for (char c : "-)('".toCharArray()) {
+            CHAR_CLASSES[c] |= WORD_PART;
+        }
+    }
+
+    private final SubtreeInterner interner;
+
+    public TextLexer() {
+        this(null);
+    }
+
+    /**
+     * Identical subtrees of the produced trees are shared through the given interner.
+     */
+    public TextLexer(SubtreeInterner interner) {
+        this.interner = interner;
+    }
+
+    @Override
+    public TextComponent parse(String text) {
+        return new Scanner<>(text, new ComponentTreeBuilder(text, interner)).scan();
+    }
+
+    public TextComponent parseParagraph(String paragraph) {
+        return (TextComponent) parse(paragraph).getComponent(0);
+    }
+
+    public CompactText parseCompact(String text) {
+        return new Scanner<>(text, new CompactTextBuilder(text)).scan();
+    }
+
+    static boolean isLetter(char c) {
+        return is(c, LETTER);
+    }
+
+    static boolean isWhitespace(char c) {
+        return is(c, WHITESPACE);
+    }
+
+    private static boolean is(char c, byte charClass) {
+        return c < CHAR_CLASSES.length && (CHAR_CLASSES[c] & charClass) != 0;
+    }
+
+    private static final class Scanner<T> {
+        private static final int NO_WORD = -1;
+        private final String text;
+        private final TextTreeBuilder<T> builder;
+        private boolean paragraphOpened;
+        private boolean sentenceOpened;
+        private boolean lexemeOpened;
+        private int sentencesInParagraph;
+        private int wordStart = NO_WORD;
+        private int lexemeLength;
+        private int lastWordLength;
+        private int lastLexemePosition;
+        private int pendingEmptyParagraphs;
+        private boolean delimiterFound;
+
+        private Scanner(String text, TextTreeBuilder<T> builder) {
+            this.text = text;
+            this.builder = builder;
+        }
+
+        private T scan() {
+            int length = text.length();
+            int i = 0;
+            while (i < length) {
+                char c = text.charAt(i);
+                if (is(c, WHITESPACE)) {
+                    int end = i + 1;
+                    while (end < length && is(text.charAt(end), WHITESPACE)) {
+                        end++;
+                    }
+                    whitespaceRun(i, end);
+                    i = end;
+                }
+                else {
+                    openLexeme();
+                    appendToLexeme(i);
+                    i++;
+                }
+            }
+
+            if (paragraphOpened) {
+                closeParagraph(length);
+            }
+            else if (!delimiterFound) {
+                addEmptyParagraph();
+            }
+
+            return builder.build();
+        }
+
+        private void whitespaceRun(int start, int end) {
+            endWord(start);
+            int delimiters = (end - start) / PARAGRAPH_DELIMITER_LENGTH;
+
+            if (delimiters > 0) {
+                delimiterFound = true;
+                if (paragraphOpened) {
+                    closeParagraph(start);
+                }
+                else {
+                    pendingEmptyParagraphs++;
+                }
+                pendingEmptyParagraphs += delimiters - 1;
+                start += delimiters * PARAGRAPH_DELIMITER_LENGTH;
+                if (start == end) {
+                    return;
+                }
+                openParagraph();
+            }
+            else if (paragraphOpened && is(text.charAt(start - 1), SENTENCE_END)) {
+                closeSentence(start);
+                start++;
+                if (start == end) {
+                    return;
+                }
+            }
+
+            if (end < text.length() && is(text.charAt(end), LEXEME_START)) {
+                if (lexemeOpened) {
+                    closeLexeme(start);
+                }
+                return;
+            }
+
+            openLexeme();
+            for (int i = start; i < end; i++) {
+                appendToLexeme(i);
+            }
+        }
+
+        private void appendToLexeme(int position) {
+            char c = text.charAt(position);
+            lexemeLength++;
+            lastLexemePosition = position;
+
+            if (wordStart != NO_WORD) {
+                if (!is(c, WORD_PART)) {
+                    endWord(position);
+                }
+            }
+            else if (is(c, WORD_START)) {
+                wordStart = position;
+            }
+        }
+
+        private void endWord(int end) {
+            if (wordStart != NO_WORD) {
+                builder.word(wordStart, end);
+                lastWordLength = end - wordStart;
+                wordStart = NO_WORD;
+            }
+        }
+
+        private void openParagraph() {
+            while (pendingEmptyParagraphs > 0) {
+                addEmptyParagraph();
+                pendingEmptyParagraphs--;
+            }
+            builder.paragraph();
+            paragraphOpened = true;
+            sentencesInParagraph = 0;
+        }
+
+        private void openLexeme() {
+            if (lexemeOpened) {
+                return;
+            }
+            if (!paragraphOpened) {
+                openParagraph();
+            }
+            if (!sentenceOpened) {
+                builder.sentence();
+                sentenceOpened = true;
+                sentencesInParagraph++;
+            }
+            builder.lexeme();
+            lexemeOpened = true;
+            lexemeLength = 0;
+            lastWordLength = 0;
+        }
+
+        private void closeLexeme(int end) {
+            endWord(end);
+            if (lexemeLength - lastWordLength == 1) {
+                builder.sign(lastLexemePosition);
+            }
+            lexemeOpened = false;
+        }
+
+        private void closeSentence(int end) {
+            if (lexemeOpened) {
+                closeLexeme(end);
+            }
+            sentenceOpened = false;
+        }
+
+        private void closeParagraph(int end) {
+            closeSentence(end);
+            if (sentencesInParagraph == 0) {
+                builder.sentence();
+            }
+            paragraphOpened = false;
+        }
+
+        private void addEmptyParagraph() {
+            builder.paragraph();
+            builder.sentence();
+        }
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.karzhou.parser.parser;
+
+/**
+ * Receives the structure found by {@link TextLexer} in document order.
+ * Every paragraph, sentence and lexeme is announced before its children;
+ * words are reported as {@code [start, end)} offsets in the source text and
+ * signs by their offset.
+ */
+interface TextTreeBuilder<T> {
+    void paragraph();
+    void sentence();
+    void lexeme();
+    void word(int start, int end);
+    void sign(int position);
+    T build();
+}
@@ -8,14 +8,25 @@ import com.karzhou.parser.composite.impl.TextSign;
 
 
 public class WordParser implements TextParser {
-    private static final String CHECK_LETTER_REGEXP = "\\w";
+    private final SubtreeInterner interner;
+
+    public WordParser() {
+        this(null);
+    }
+
+    public WordParser(SubtreeInterner interner) {
+        this.interner = interner;
+    }
 
     @Override
     public CommonText parse(String word) {
+        if (interner != null) {
+            return parseInterned(word);
+        }
         TextComponent textComponent = new TextComponent(ComponentType.WORD);
 
         for (int i = 0; i < word.length(); i++) {
-            if(String.valueOf(word.charAt(i)).matches(CHECK_LETTER_REGEXP)){
+            if(TextLexer.isLetter(word.charAt(i))){
                 textComponent.addComponent(new TextLetter(word.charAt(i)));
             }
             else {
@@ -26,6 +37,17 @@ public class WordParser implements TextParser {
         return textComponent;
     }
 
+    private CommonText parseInterned(String word) {
+        TextComponent textComponent = new TextComponent(ComponentType.WORD);
+
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            textComponent.addComponent(TextLexer.isLetter(c) ? TextLetter.valueOf(c) : TextSign.valueOf(c));
+        }
+
+        return interner.intern(textComponent);
+    }
+
 
 
 }
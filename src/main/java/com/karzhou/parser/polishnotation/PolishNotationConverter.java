@@ -169,7 +169,7 @@ public class PolishNotationConverter {
         }
         stringBuilder.setLength(stringBuilder.length() - 1);
 
-        LOGGER.info("String converted successfully");
+        LOGGER.debug("String converted successfully");
 
         return stringBuilder.reverse().toString();
     }
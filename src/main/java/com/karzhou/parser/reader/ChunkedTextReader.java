@@ -0,0 +1,195 @@
+package com.karzhou.parser.reader;
+
+import com.karzhou.parser.metrics.ParseMetrics;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads a file through a {@link FileChannel} in fixed-size chunks and hands out
+ * one paragraph at a time, so memory depends on the paragraph size, not on the file size.
+ * Paragraphs are cut exactly as {@code TextReader.readAllText(...).split("\\s{4}")} would cut them.
+ */
+public class ChunkedTextReader implements Iterator<String>, Closeable {
+    private static final Logger LOGGER = LogManager.getLogger(ChunkedTextReader.class);
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+    private static final int PARAGRAPH_DELIMITER_LENGTH = 4;
+    private static final int SURROGATE_PAIR_LENGTH = 2;
+    private static final int MIN_CHUNK_SIZE = 4;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final CharsetDecoder decoder;
+    private final ByteBuffer byteBuffer;
+    private final CharBuffer charBuffer;
+    private final StringBuilder paragraph = new StringBuilder();
+    private int whitespaceRun;
+    private int pendingEmptyParagraphs;
+    private String readyParagraph;
+    private boolean delimiterFound;
+    private boolean lastParagraphTaken;
+    private boolean endOfInput;
+    private String next;
+
+    public ChunkedTextReader(Path path) {
+        this(path, DEFAULT_CHUNK_SIZE, Charset.defaultCharset());
+    }
+
+    /**
+     * @param chunkSize bytes read at a time; it must hold a whole surrogate pair, i.e. at least
+     *                  {@code max(4, 2 * maxBytesPerChar)} bytes of the charset
+     */
+    public ChunkedTextReader(Path path, int chunkSize, Charset charset) {
+        int minChunkSize = minChunkSize(charset);
+        if (chunkSize < minChunkSize) {
+            throw new IllegalArgumentException("Chunk size must be at least " + minChunkSize + " for " + charset + ": " + chunkSize);
+        }
+        this.path = path;
+        this.decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.byteBuffer = ByteBuffer.allocateDirect(chunkSize);
+        this.charBuffer = CharBuffer.allocate(Math.max(SURROGATE_PAIR_LENGTH,
+                (int) Math.ceil(chunkSize * (double) decoder.maxCharsPerByte())));
+        this.charBuffer.flip();
+
+        try {
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        } catch (IOException e) {
+            LOGGER.fatal("Problems with opening file: " + path, e);
+            throw new RuntimeException("Problems with opening file: " + path, e);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            next = readParagraph();
+        }
+        return next != null;
+    }
+
+    @Override
+    public String next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more paragraphs in file: " + path);
+        }
+        String result = next;
+        next = null;
+        return result;
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            LOGGER.error("Problems with closing file: {}", path, e);
+        }
+    }
+
+    private String readParagraph() {
+        if (pendingEmptyParagraphs > 0) {
+            pendingEmptyParagraphs--;
+            return "";
+        }
+        if (readyParagraph != null) {
+            String result = readyParagraph;
+            readyParagraph = null;
+            return result;
+        }
+
+        while (!endOfInput || charBuffer.hasRemaining()) {
+            if (!charBuffer.hasRemaining()) {
+                fillCharBuffer();
+                continue;
+            }
+            char c = charBuffer.get();
+            if (c == '\n' || c == '\r') {
+                continue;
+            }
+            paragraph.append(c);
+            whitespaceRun = isWhitespace(c) ? whitespaceRun + 1 : 0;
+
+            if (whitespaceRun == PARAGRAPH_DELIMITER_LENGTH) {
+                whitespaceRun = 0;
+                delimiterFound = true;
+                paragraph.setLength(paragraph.length() - PARAGRAPH_DELIMITER_LENGTH);
+                if (paragraph.length() == 0) {
+                    pendingEmptyParagraphs++;
+                    continue;
+                }
+                return takeParagraph();
+            }
+        }
+
+        if (paragraph.length() > 0) {
+            return takeParagraph();
+        }
+        pendingEmptyParagraphs = 0;
+        if (!delimiterFound && !lastParagraphTaken) {
+            lastParagraphTaken = true;
+            return "";
+        }
+        return null;
+    }
+
+    private String takeParagraph() {
+        String result = paragraph.toString();
+        paragraph.setLength(0);
+        lastParagraphTaken = true;
+        if (pendingEmptyParagraphs > 0) {
+            readyParagraph = result;
+            pendingEmptyParagraphs--;
+            return "";
+        }
+        return result;
+    }
+
+    private void fillCharBuffer() {
+        charBuffer.clear();
+        try {
+            long start = System.nanoTime();
+            int read = channel.read(byteBuffer);
+            ParseMetrics.getInstance().recordRead(Math.max(read, 0), System.nanoTime() - start);
+            byteBuffer.flip();
+            decoder.decode(byteBuffer, charBuffer, read < 0);
+            if (read == 0 && charBuffer.position() == 0) {
+                LOGGER.fatal("Chunk size {} is too small for a char in file: {}", byteBuffer.capacity(), path);
+                throw new RuntimeException("Chunk size " + byteBuffer.capacity() + " is too small for a char in file: " + path);
+            }
+            if (read < 0) {
+                decoder.flush(charBuffer);
+                endOfInput = true;
+            }
+            byteBuffer.compact();
+        } catch (IOException e) {
+            LOGGER.fatal("Problems with reading file: " + path, e);
+            throw new RuntimeException("Problems with reading file: " + path, e);
+        }
+        charBuffer.flip();
+    }
+
+    // A supplementary character decodes only when both of its surrogates fit into one chunk.
+    private static int minChunkSize(Charset charset) {
+        int maxBytesPerChar = charset.canEncode() ? (int) Math.ceil(charset.newEncoder().maxBytesPerChar()) : 1;
+        return Math.max(MIN_CHUNK_SIZE, SURROGATE_PAIR_LENGTH * maxBytesPerChar);
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\u000B' || c == '\f';
+    }
+
+}
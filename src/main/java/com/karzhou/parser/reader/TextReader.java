@@ -4,7 +4,11 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.*;
+import java.nio.file.Path;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class TextReader {
     private static final Logger LOGGER = LogManager.getLogger(TextReader.class);
@@ -33,4 +37,12 @@ public class TextReader {
 
         return allText.toString();
     }
+
+    public static Stream<String> readParagraphs(Path path) {
+        ChunkedTextReader reader = new ChunkedTextReader(path);
+        LOGGER.debug("File is opened for chunked reading: {}", path);
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(reader, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(reader::close);
+    }
 }
@@ -0,0 +1,51 @@
+package com.karzhou.parser.service;
+
+import com.karzhou.parser.interpreter.CompiledExpression;
+import com.karzhou.parser.polishnotation.PolishNotationConverter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of compiled expressions keyed by the infix expression text,
+ * so a repeated expression skips both the polish notation conversion and its parsing.
+ */
+public class ExpressionCache {
+    public static final int DEFAULT_CAPACITY = 1024;
+    private final PolishNotationConverter polishNotationConverter = new PolishNotationConverter();
+    private final Map<String, CompiledExpression> compiledExpressions;
+
+    public ExpressionCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ExpressionCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Cache capacity must be positive: " + capacity);
+        }
+        this.compiledExpressions = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompiledExpression> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    public synchronized CompiledExpression compile(String expression) {
+        CompiledExpression compiledExpression = compiledExpressions.get(expression);
+        if (compiledExpression == null) {
+            compiledExpression = CompiledExpression.compile(polishNotationConverter.calculatePolishNotation(expression));
+            compiledExpressions.put(expression, compiledExpression);
+        }
+        return compiledExpression;
+    }
+
+    public int evaluate(String expression) {
+        return compile(expression).evaluate();
+    }
+
+    public synchronized int size() {
+        return compiledExpressions.size();
+    }
+
+}
@@ -1,61 +1,43 @@
 package com.karzhou.parser.service;
 
-import com.karzhou.parser.interpreter.InterpreterClient;
-import com.karzhou.parser.interpreter.MathExpression;
-import com.karzhou.parser.interpreter.PolishNotationInterpreter;
-import com.karzhou.parser.polishnotation.PolishNotationConverter;
+import com.karzhou.parser.metrics.ParseMetrics;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class ExpressionConverter{
-    private static final String NUMBER_EXPRESSION_REGEX = "\\p{Punct}*\\d[\\p{Punct}\\d]+";
+    private static final Pattern NUMBER_EXPRESSION_PATTERN = Pattern.compile("\\p{Punct}*\\d[\\p{Punct}\\d]+");
     private static final Logger LOGGER = LogManager.getLogger(ExpressionConverter.class);
+    private final ExpressionCache expressionCache;
 
-    public String replaceExpressionsByNumber(String text){
-        List<String> mustReplace = getAllExpressions(text);
-        List<String> willReplace = convertToNumbers(mustReplace);
-
-        String result = text;
-        for (int i = 0; i < mustReplace.size(); i++) {
-            result = result.replace(mustReplace.get(i), willReplace.get(i));
-        }
-
-        LOGGER.info("All expressions in the text were replaced by numbers");
-
-        return result;
+    public ExpressionConverter() {
+        this(new ExpressionCache());
     }
 
-    private List<String> getAllExpressions(String text){
-        List<String> expressions = new ArrayList<>();
+    public ExpressionConverter(ExpressionCache expressionCache) {
+        this.expressionCache = expressionCache;
+    }
 
-        Pattern p = Pattern.compile(NUMBER_EXPRESSION_REGEX);
-        Matcher matcher = p.matcher(text);
+    public String replaceExpressionsByNumber(String text){
+        StringBuilder result = new StringBuilder(text.length());
+        Matcher matcher = NUMBER_EXPRESSION_PATTERN.matcher(text);
+        int end = 0;
 
         while (matcher.find()){
-            expressions.add(matcher.group());
+            result.append(text, end, matcher.start());
+            long start = System.nanoTime();
+            int value = expressionCache.evaluate(matcher.group());
+            ParseMetrics.getInstance().recordExpression(System.nanoTime() - start);
+            result.append(value);
+            end = matcher.end();
         }
+        result.append(text, end, text.length());
 
-        return expressions;
-    }
-    private List<String> convertToNumbers(List<String> input){
-        List<String> result = new ArrayList<>();
-
-        PolishNotationConverter polishNotationParser = new PolishNotationConverter();
-        PolishNotationInterpreter interpreter = new PolishNotationInterpreter();
-
-        for(String value : input){
-            List<MathExpression> mathExpressions = interpreter.parse(polishNotationParser.calculatePolishNotation(value));
-            InterpreterClient interpreterClient = new InterpreterClient();
-            int res = interpreterClient.handleExpression(mathExpressions);
-            result.add(String.valueOf(res));
-        }
+        LOGGER.debug("All expressions in the text were replaced by numbers");
 
-        return result;
+        return result.toString();
     }
 
 }
@@ -0,0 +1,62 @@
+package com.karzhou.parser.service;
+
+import java.util.Arrays;
+
+/**
+ * Stable sorts of element indices by precomputed int keys. A key and its tie-breaker are
+ * packed into one {@code long}, so the sort itself runs over a primitive array without a comparator.
+ */
+final class IndexSort {
+
+    private IndexSort() {
+    }
+
+    /**
+     * Indices {@code 0..keys.length - 1} ordered by key; equal keys keep the index order.
+     */
+    static int[] order(int[] keys, boolean parallel) {
+        long[] packed = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            packed[i] = (long) keys[i] << 32 | i;
+        }
+        sort(packed, parallel);
+
+        int[] order = new int[keys.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = (int) packed[i];
+        }
+        return order;
+    }
+
+    /**
+     * Indices ordered by key, equal keys ordered by {@code ranks}, which must be
+     * a permutation of {@code 0..keys.length - 1}.
+     */
+    static int[] order(int[] keys, int[] ranks, boolean parallel) {
+        int[] byRank = new int[ranks.length];
+        for (int i = 0; i < ranks.length; i++) {
+            byRank[ranks[i]] = i;
+        }
+        long[] packed = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            packed[i] = (long) keys[i] << 32 | ranks[i];
+        }
+        sort(packed, parallel);
+
+        int[] order = new int[keys.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = byRank[(int) packed[i]];
+        }
+        return order;
+    }
+
+    private static void sort(long[] packed, boolean parallel) {
+        if (parallel) {
+            Arrays.parallelSort(packed);
+        }
+        else {
+            Arrays.sort(packed);
+        }
+    }
+
+}
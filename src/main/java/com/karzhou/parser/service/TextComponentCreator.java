@@ -1,11 +1,17 @@
 package com.karzhou.parser.service;
 
 import com.karzhou.parser.composite.impl.TextComponent;
+import com.karzhou.parser.parser.ParagraphParseCache;
 import com.karzhou.parser.parser.TextAllParser;
 import com.karzhou.parser.reader.TextReader;
+import com.karzhou.parser.snapshot.TextSnapshot;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Stream;
+
 public class TextComponentCreator {
     private static final Logger LOGGER = LogManager.getLogger(TextComponentCreator.class);
 
@@ -22,4 +28,49 @@ public class TextComponentCreator {
         return parser.parse(changeText);
     }
 
+    public static TextComponent create(Path path){
+        return create(path, new TextAllParser());
+    }
+
+    public static TextComponent create(Path path, ExecutorService executor){
+        return create(path, new TextAllParser(executor));
+    }
+
+    /**
+     * Unchanged paragraphs are taken from the cache, so re-creating a slightly edited file
+     * parses only the edited paragraphs. The executor may be {@code null}.
+     */
+    public static TextComponent create(Path path, ExecutorService executor, ParagraphParseCache cache){
+        return create(path, new TextAllParser(executor, cache));
+    }
+
+    /**
+     * Loads the text from the snapshot if it was made from the current content of the file,
+     * otherwise parses the file and writes a new snapshot.
+     */
+    public static TextComponent create(Path path, Path snapshot){
+        long sourceHash = TextSnapshot.contentHash(path);
+        TextComponent textComponent = TextSnapshot.load(snapshot, sourceHash);
+
+        if (textComponent == null) {
+            textComponent = create(path);
+            TextSnapshot.write(textComponent, snapshot, sourceHash);
+        }
+
+        return textComponent;
+    }
+
+    private static TextComponent create(Path path, TextAllParser parser){
+        ExpressionConverter converter = new ExpressionConverter();
+
+        TextComponent textComponent;
+        try (Stream<String> paragraphs = TextReader.readParagraphs(path)) {
+            textComponent = parser.parseParagraphs(paragraphs.map(converter::replaceExpressionsByNumber));
+        }
+
+        LOGGER.info("TextComponent Object is created");
+
+        return textComponent;
+    }
+
 }
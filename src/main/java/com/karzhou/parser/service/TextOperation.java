@@ -1,6 +1,10 @@
 package com.karzhou.parser.service;
 
+import com.karzhou.parser.analysis.CharStatistics;
+import com.karzhou.parser.analysis.SentenceLetterCounts;
+import com.karzhou.parser.analysis.WordCounter;
 import com.karzhou.parser.composite.CommonText;
+import com.karzhou.parser.composite.impl.CompactText;
 import com.karzhou.parser.composite.impl.TextComponent;
 import com.karzhou.parser.composite.ComponentType;
 import com.karzhou.parser.composite.impl.TextLetter;
@@ -9,12 +13,17 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.stream.Collectors;
 
 
 public class TextOperation {
     private static final Logger LOGGER = LogManager.getLogger(TextOperation.class);
-    private static final Set<Character> VOWELS = new HashSet<>(Arrays.asList('a', 'e', 'i', 'o', 'u', 'y')); // не совсем конст
+    private static final int MIN_DUPLICATE_COUNT = 2;
 
     public static TextComponent sortParagraphsByNumOFSentences(TextComponent text) {
             TextComponent result = new TextComponent(ComponentType.TEXT);
@@ -39,6 +48,15 @@ public class TextOperation {
         }
 
     public static TextComponent sortByLengthOfWordsText(TextComponent text) {
+        return sortByLengthOfWordsText(text, false);
+    }
+
+    /**
+     * With {@code parallelSort} the words of each sentence are ordered by
+     * {@link Arrays#parallelSort(long[])} over their letter counts packed with their indices,
+     * which pays off only for sentences with very many words.
+     */
+    public static TextComponent sortByLengthOfWordsText(TextComponent text, boolean parallelSort) {
         TextComponent result = new TextComponent(ComponentType.TEXT);
 
         if (text == null) {
@@ -68,24 +86,13 @@ public class TextOperation {
                         }
                     }
                 }
-                allWords.sort(((o1, o2) -> {
-                    int counter1 = 0;
-                    int counter2 = 0;
-                    for(int s = 0; s < o1.getComponentsSize(); s++){
-                        if(o1.getComponent(s) instanceof TextLetter){
-                            counter1++;
-                        }
-                    }
-                    for(int s = 0; s < o2.getComponentsSize(); s++){
-                        if(o2.getComponent(s) instanceof TextLetter){
-                            counter2++;
-                        }
-                    }
-                    return counter1 - counter2;
-                }));
+                int[] wordLengths = new int[allWords.size()];
+                for (int k = 0; k < wordLengths.length; k++) {
+                    wordLengths[k] = allWords.get(k).getLetterCount();
+                }
 
-                for(TextComponent textComponent : allWords){
-                    resultSentence.addComponent(textComponent);
+                for(int index : IndexSort.order(wordLengths, parallelSort)){
+                    resultSentence.addComponent(allWords.get(index));
                 }
                 for(TextSign sign : allSigns){
                     resultSentence.addComponent(sign);
@@ -102,6 +109,16 @@ public class TextOperation {
     }
 
     public static TextComponent reverseSortLexemesByOrderSymbol(TextComponent text, String searchSymbol){
+        return reverseSortLexemesByOrderSymbol(text, searchSymbol, false);
+    }
+
+    /**
+     * With {@code parallelSort} all three sorts of each sentence run in parallel: the lexemes by
+     * their text ignoring case, through {@link Arrays#parallelSort(Object[], Comparator)}, and then
+     * the packed text ranks and symbol counts through {@link Arrays#parallelSort(long[])}. The first
+     * one still compares Strings, so it pays off only for sentences with very many lexemes.
+     */
+    public static TextComponent reverseSortLexemesByOrderSymbol(TextComponent text, String searchSymbol, boolean parallelSort){
         TextComponent result = new TextComponent(ComponentType.TEXT);
 
         if(text == null){
@@ -117,16 +134,8 @@ public class TextOperation {
                 CommonText sentence = paragraph.getComponent(j);
                 TextComponent resultSentence = new TextComponent(ComponentType.SENTENCE);
 
-                List<CommonText> allLexemes = new ArrayList<>();
-                for (int k = 0; k < sentence.getComponentsSize(); k++) {
-                    allLexemes.add(sentence.getComponent(k));
-                }
-                allLexemes.sort(Comparator.comparing( o -> ((CommonText) o).countOfOrderedSymbol(searchSymbol))
-                        .thenComparing( (e1, e2) -> ((CommonText) e2).getTextMessage().compareToIgnoreCase(((CommonText) e1).getTextMessage())));
-                Collections.reverse(allLexemes);
-
-                for(CommonText lexeme : allLexemes){
-                    resultSentence.addComponent(lexeme);
+                for(int index : reverseOrderBySymbol(sentence, searchSymbol, parallelSort)){
+                    resultSentence.addComponent(sentence.getComponent(index));
                 }
                 resultParagraph.addComponent(resultSentence);
             }
@@ -139,6 +148,42 @@ public class TextOperation {
         return result;
     }
 
+    // The order of a stable sort by symbol count and then by text in descending order, reversed:
+    // more symbols first, then text ignoring case, equal lexemes in reverse order.
+    private static int[] reverseOrderBySymbol(CommonText sentence, String searchSymbol, boolean parallelSort) {
+        int size = sentence.getComponentsSize();
+        int[] symbolCounts = new int[size];
+        LexemeKey[] byText = new LexemeKey[size];
+        for (int k = 0; k < size; k++) {
+            CommonText lexeme = sentence.getComponent(k);
+            symbolCounts[k] = -lexeme.countOfOrderedSymbol(searchSymbol);
+            byText[k] = new LexemeKey(k, lexeme.getTextMessage());
+        }
+        Comparator<LexemeKey> textOrder = (e1, e2) -> e1.textMessage.compareToIgnoreCase(e2.textMessage);
+        if (parallelSort) {
+            Arrays.parallelSort(byText, textOrder);
+        }
+        else {
+            Arrays.sort(byText, textOrder);
+        }
+
+        int[] reversedTextRanks = new int[size];
+        int textRank = 0;
+        for (int k = 0; k < size; k++) {
+            if (k > 0 && textOrder.compare(byText[k - 1], byText[k]) != 0) {
+                textRank++;
+            }
+            reversedTextRanks[size - 1 - byText[k].index] = textRank;
+        }
+        int[] ranks = new int[size];
+        int[] textThenReversedIndex = IndexSort.order(reversedTextRanks, parallelSort);
+        for (int k = 0; k < size; k++) {
+            ranks[size - 1 - textThenReversedIndex[k]] = k;
+        }
+
+        return IndexSort.order(symbolCounts, ranks, parallelSort);
+    }
+
     public static List<TextComponent> findSentencesWithLongestWord(TextComponent text) {
         List<TextComponent> result = new ArrayList<>();
         int maxWordLength = 0;
@@ -148,51 +193,20 @@ public class TextOperation {
             return result;
         }
 
-        for (int i = 0; i < text.getComponentsSize(); i++) {
-            CommonText paragraph = text.getComponent(i);
-            for (int j = 0; j < paragraph.getComponentsSize(); j++) {
-                CommonText sentence = paragraph.getComponent(j);
-                for (int k = 0; k < sentence.getComponentsSize(); k++) {
-                    CommonText lexeme = sentence.getComponent(k);
-                    for (int l = 0; l < lexeme.getComponentsSize(); l++) {
-                        if (lexeme.getComponent(l) instanceof TextComponent && 
-                            lexeme.getComponent(l).getTypeOfTextComponent().equals(ComponentType.WORD)) {
-                            int wordLength = countLetters((TextComponent) lexeme.getComponent(l));
-                            maxWordLength = Math.max(maxWordLength, wordLength);
-                        }
-                    }
-                }
-            }
-        }
+        maxWordLength = text.getMaxWordLength();
 
         for (int i = 0; i < text.getComponentsSize(); i++) {
             CommonText paragraph = text.getComponent(i);
             for (int j = 0; j < paragraph.getComponentsSize(); j++) {
-                CommonText sentence = paragraph.getComponent(j);
-                boolean hasLongestWord = false;
-
-                for (int k = 0; k < sentence.getComponentsSize(); k++) {
-                    CommonText lexeme = sentence.getComponent(k);
-                    for (int l = 0; l < lexeme.getComponentsSize(); l++) {
-                        if (lexeme.getComponent(l) instanceof TextComponent && 
-                            lexeme.getComponent(l).getTypeOfTextComponent().equals(ComponentType.WORD)) {
-                            int wordLength = countLetters((TextComponent) lexeme.getComponent(l));
-                            if (wordLength == maxWordLength) {
-                                hasLongestWord = true;
-                                break;
-                            }
-                        }
-                    }
-                    if (hasLongestWord) break;
-                }
+                TextComponent sentence = (TextComponent) paragraph.getComponent(j);
 
-                if (hasLongestWord) {
-                    result.add((TextComponent) sentence);
+                if (sentence.getWordCount() > 0 && sentence.getMaxWordLength() == maxWordLength) {
+                    result.add(sentence);
                 }
             }
         }
 
-        LOGGER.info("Found sentences with longest word (length: " + maxWordLength + ")");
+        LOGGER.info("Found sentences with longest word (length: {})", maxWordLength);
         return result;
     }
 
@@ -222,20 +236,77 @@ public class TextOperation {
             }
         }
 
-        LOGGER.info("Removed sentences with less than " + minWords + " words");
+        LOGGER.info("Removed sentences with less than {} words", minWords);
         return result;
     }
 
 
     public static Map<String, Integer> countDuplicateWords(TextComponent text) {
-        Map<String, Integer> wordCount = new HashMap<>();
+        if (text == null) {
+            LOGGER.error("text can't be null");
+            return new HashMap<>();
+        }
+
+        WordCounter wordCounter = countWords(text, 0, text.getComponentsSize());
+        Map<String, Integer> wordCount = wordCounter.toMap(MIN_DUPLICATE_COUNT);
+
+        LOGGER.info("Found {} duplicate words", wordCount.size());
+        return wordCount;
+    }
+
+    /**
+     * Same result as {@link #countDuplicateWords(TextComponent)}; ranges of paragraphs are counted
+     * on the given executor, each task into its own {@link WordCounter}, and the counters are merged
+     * at the end. The executor is owned by the caller and is not shut down.
+     * The text is split into as many tasks as the executor has threads.
+     */
+    public static Map<String, Integer> countDuplicateWords(TextComponent text, ExecutorService executor) {
+        return countDuplicateWords(text, executor, parallelismOf(executor));
+    }
 
+    public static Map<String, Integer> countDuplicateWords(TextComponent text, ExecutorService executor, int parallelism) {
         if (text == null) {
             LOGGER.error("text can't be null");
-            return wordCount;
+            return new HashMap<>();
+        }
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
         }
 
-        for (int i = 0; i < text.getComponentsSize(); i++) {
+        int paragraphs = text.getComponentsSize();
+        int tasks = Math.max(1, Math.min(paragraphs, parallelism));
+        List<Future<WordCounter>> counters = new ArrayList<>();
+        for (int i = 0; i < tasks; i++) {
+            int from = (int) ((long) paragraphs * i / tasks);
+            int to = (int) ((long) paragraphs * (i + 1) / tasks);
+            counters.add(executor.submit(() -> countWords(text, from, to)));
+        }
+
+        WordCounter wordCounter = new WordCounter();
+        for (Future<WordCounter> counter : counters) {
+            wordCounter.merge(waitForCounter(counter, counters));
+        }
+        Map<String, Integer> wordCount = wordCounter.toMap(MIN_DUPLICATE_COUNT);
+
+        LOGGER.info("Found {} duplicate words", wordCount.size());
+        return wordCount;
+    }
+
+    private static int parallelismOf(ExecutorService executor) {
+        if (executor instanceof ThreadPoolExecutor) {
+            int poolSize = ((ThreadPoolExecutor) executor).getMaximumPoolSize();
+            return poolSize == Integer.MAX_VALUE ? Runtime.getRuntime().availableProcessors() : poolSize;
+        }
+        if (executor instanceof ForkJoinPool) {
+            return ((ForkJoinPool) executor).getParallelism();
+        }
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    private static WordCounter countWords(TextComponent text, int fromParagraph, int toParagraph) {
+        WordCounter wordCounter = new WordCounter();
+
+        for (int i = fromParagraph; i < toParagraph; i++) {
             CommonText paragraph = text.getComponent(i);
             for (int j = 0; j < paragraph.getComponentsSize(); j++) {
                 CommonText sentence = paragraph.getComponent(j);
@@ -244,37 +315,61 @@ public class TextOperation {
                     for (int l = 0; l < lexeme.getComponentsSize(); l++) {
                         if (lexeme.getComponent(l) instanceof TextComponent && 
                             lexeme.getComponent(l).getTypeOfTextComponent().equals(ComponentType.WORD)) {
-                            String word = lexeme.getComponent(l).getTextMessage().toLowerCase();
-                            wordCount.merge(word, 1, Integer::sum);
+                            wordCounter.add(lexeme.getComponent(l));
                         }
                     }
                 }
             }
         }
 
-        wordCount.entrySet().removeIf(entry -> entry.getValue() <= 1);
+        return wordCounter;
+    }
 
-        LOGGER.info("Found " + wordCount.size() + " duplicate words");
-        return wordCount;
+    private static WordCounter waitForCounter(Future<WordCounter> counter, List<Future<WordCounter>> allCounters) {
+        try {
+            return counter.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            allCounters.forEach(o -> o.cancel(true));
+            LOGGER.error("Counting of words was interrupted", e);
+            throw new RuntimeException("Counting of words was interrupted", e);
+        } catch (ExecutionException e) {
+            allCounters.forEach(o -> o.cancel(true));
+            LOGGER.error("Words can't be counted", e.getCause());
+            throw new RuntimeException("Words can't be counted", e.getCause());
+        }
     }
 
 
     public static Map<TextComponent, Map<String, Integer>> countVowelsAndConsonants(TextComponent text) {
-        Map<TextComponent, Map<String, Integer>> result = new HashMap<>();
+        if (text == null) {
+            LOGGER.error("text can't be null");
+            return new HashMap<>();
+        }
+
+        Map<TextComponent, Map<String, Integer>> result = countVowelsAndConsonantsBySentence(text).toMap();
+        LOGGER.info("Counted vowels and consonants in {} sentences", result.size());
+        return result;
+    }
+
+    /**
+     * Columnar variant of {@link #countVowelsAndConsonants(TextComponent)}: sentences are indexed
+     * in document order and no sentence is hashed.
+     */
+    public static SentenceLetterCounts countVowelsAndConsonantsBySentence(TextComponent text) {
+        SentenceLetterCounts result = new SentenceLetterCounts();
 
         if (text == null) {
             LOGGER.error("text can't be null");
             return result;
         }
 
-
+        CharStatistics statistics = new CharStatistics();
         for (int i = 0; i < text.getComponentsSize(); i++) {
             CommonText paragraph = text.getComponent(i);
             for (int j = 0; j < paragraph.getComponentsSize(); j++) {
                 CommonText sentence = paragraph.getComponent(j);
-                int vowels = 0;
-                int consonants = 0;
-
+                statistics.reset();
 
                 for (int k = 0; k < sentence.getComponentsSize(); k++) {
                     CommonText lexeme = sentence.getComponent(k);
@@ -283,43 +378,58 @@ public class TextOperation {
                             lexeme.getComponent(l).getTypeOfTextComponent().equals(ComponentType.WORD)) {
                             TextComponent word = (TextComponent) lexeme.getComponent(l);
                             for (int m = 0; m < word.getComponentsSize(); m++) {
-                                if (word.getComponent(m) instanceof TextLetter) {
-                                    char letter = Character.toLowerCase(word.getComponent(m).getTextMessage().charAt(0));
-                                    if (Character.isLetter(letter)) {
-                                        if (VOWELS.contains(letter)) {
-                                            vowels++;
-                                        } else {
-                                            consonants++;
-                                        }
-                                    }
+                                CommonText leaf = word.getComponent(m);
+                                if (leaf instanceof TextLetter) {
+                                    statistics.add(((TextLetter) leaf).getLetter());
+                                }
+                                else if (leaf instanceof TextSign) {
+                                    statistics.add(((TextSign) leaf).getSign());
                                 }
                             }
                         }
                     }
                 }
 
-                Map<String, Integer> counts = new HashMap<>();
-                counts.put("vowels", vowels);
-                counts.put("consonants", consonants);
-                result.put((TextComponent) sentence, counts);
+                result.add(sentence, statistics);
             }
         }
 
-        LOGGER.info("Counted vowels and consonants in " + result.size() + " sentences");
+        LOGGER.debug("Counted vowels and consonants in {} sentences", result.size());
         return result;
     }
 
-    private static int countLetters(TextComponent word) {
-        int count = 0;
-        for (int i = 0; i < word.getComponentsSize(); i++) {
-            if (word.getComponent(i) instanceof TextLetter) {
-                count++;
+    /**
+     * Same result as {@link #countVowelsAndConsonantsBySentence(TextComponent)}; the words of the
+     * compact text are counted as contiguous ranges of its chars instead of leaf by leaf.
+     */
+    public static SentenceLetterCounts countVowelsAndConsonantsBySentence(CompactText text) {
+        SentenceLetterCounts result = new SentenceLetterCounts();
+
+        if (text == null) {
+            LOGGER.error("text can't be null");
+            return result;
+        }
+
+        CharStatistics statistics = new CharStatistics();
+        CompactText.CharSpanConsumer counter = statistics::add;
+        int sentenceIndex = 0;
+        for (int i = 0; i < text.getComponentsSize(); i++) {
+            CommonText paragraph = text.getComponent(i);
+            for (int j = 0; j < paragraph.getComponentsSize(); j++) {
+                statistics.reset();
+                text.forEachWordSpan(sentenceIndex++, counter);
+                result.add(paragraph.getComponent(j), statistics);
             }
         }
-        return count;
+
+        LOGGER.debug("Counted vowels and consonants in {} sentences", result.size());
+        return result;
     }
 
     private static int countWords(CommonText sentence) {
+        if (sentence instanceof TextComponent) {
+            return ((TextComponent) sentence).getWordCount();
+        }
         int count = 0;
         for (int i = 0; i < sentence.getComponentsSize(); i++) {
             CommonText lexeme = sentence.getComponent(i);
@@ -332,17 +442,14 @@ public class TextOperation {
         }
         return count;
     }
-}
-
-
-
-
-
-
-
-
-
-
-
 
+    private static final class LexemeKey {
+        private final int index;
+        private final String textMessage;
 
+        private LexemeKey(int index, String textMessage) {
+            this.index = index;
+            this.textMessage = textMessage;
+        }
+    }
+}
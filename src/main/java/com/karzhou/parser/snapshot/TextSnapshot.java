@@ -0,0 +1,310 @@
+package com.karzhou.parser.snapshot;
+
+import com.karzhou.parser.composite.CommonText;
+import com.karzhou.parser.composite.ComponentType;
+import com.karzhou.parser.composite.impl.TextComponent;
+import com.karzhou.parser.composite.impl.TextLetter;
+import com.karzhou.parser.composite.impl.TextSign;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Binary snapshot of a parsed text, so a text that was already parsed can be loaded
+ * without reading expressions and parsing again.
+ * <p>
+ * Layout (big-endian): header {@code magic, version, source hash, node count, composite count,
+ * leaf count}, then the nodes in pre-order as three sections - one type tag byte per node,
+ * the number of children of every composite node and the UTF-16 chars of the leaves -
+ * and a trailer with the CRC32C of the sections. The snapshot is read through a memory-mapped
+ * buffer; it is ignored when the source hash doesn't match or the checksum is broken.
+ */
+public class TextSnapshot {
+    private static final Logger LOGGER = LogManager.getLogger(TextSnapshot.class);
+    private static final int MAGIC = 0x54585453;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 4 + 4 + 4;
+    private static final int TRAILER_SIZE = 8;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final ComponentType[] TYPES = ComponentType.values();
+    private static final byte LETTER_TAG = (byte) TYPES.length;
+    private static final byte SIGN_TAG = (byte) (TYPES.length + 1);
+
+    /**
+     * 64-bit content hash of a source file: CRC32 in the high and CRC32C in the low half.
+     */
+    public static long contentHash(Path source) {
+        CRC32 crc32 = new CRC32();
+        CRC32C crc32c = new CRC32C();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                crc32.update(buffer.duplicate());
+                crc32c.update(buffer);
+                buffer.clear();
+            }
+        } catch (IOException e) {
+            LOGGER.fatal("Problems with reading file: " + source, e);
+            throw new RuntimeException("Problems with reading file: " + source, e);
+        }
+
+        return crc32.getValue() << 32 | crc32c.getValue();
+    }
+
+    public static void write(CommonText text, Path snapshot, long sourceHash) {
+        Counts counts = new Counts();
+        counts.count(text);
+        Path tempFile = createTempFile(snapshot);
+
+        try (OutputStream fileStream = Files.newOutputStream(tempFile);
+             DataOutputStream output = new DataOutputStream(new BufferedOutputStream(fileStream, BUFFER_SIZE))) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeLong(sourceHash);
+            output.writeInt(counts.nodes);
+            output.writeInt(counts.composites);
+            output.writeInt(counts.leaves);
+
+            CRC32C checksum = new CRC32C();
+            DataOutputStream body = new DataOutputStream(new CheckedOutputStream(output, checksum));
+            writeTags(text, body);
+            writeChildCounts(text, body);
+            writePayload(text, body);
+            body.flush();
+            output.writeLong(checksum.getValue());
+        } catch (IOException e) {
+            deleteTempFile(tempFile);
+            LOGGER.fatal("Problems with writing snapshot: " + snapshot, e);
+            throw new RuntimeException("Problems with writing snapshot: " + snapshot, e);
+        }
+
+        try {
+            Files.move(tempFile, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            deleteTempFile(tempFile);
+            LOGGER.fatal("Problems with writing snapshot: " + snapshot, e);
+            throw new RuntimeException("Problems with writing snapshot: " + snapshot, e);
+        }
+        LOGGER.debug("Snapshot was written: {}", snapshot);
+    }
+
+    /**
+     * Every writer gets its own temp file next to the target, so concurrent writes of one snapshot
+     * don't truncate each other's file and the last move simply wins.
+     */
+    private static Path createTempFile(Path target) {
+        Path directory = target.toAbsolutePath().getParent();
+        try {
+            return Files.createTempFile(directory, target.getFileName() + ".", ".tmp");
+        } catch (IOException e) {
+            LOGGER.fatal("Problems with creating file in: " + directory, e);
+            throw new RuntimeException("Problems with creating file in: " + directory, e);
+        }
+    }
+
+    private static void deleteTempFile(Path tempFile) {
+        try {
+            Files.deleteIfExists(tempFile);
+        } catch (IOException e) {
+            LOGGER.warn("Temporary file can't be deleted: {}", tempFile, e);
+        }
+    }
+
+    /**
+     * @return the text stored in the snapshot, or {@code null} if there is no snapshot,
+     * it was made from another source or it is damaged
+     */
+    public static TextComponent load(Path snapshot, long sourceHash) {
+        if (!Files.isRegularFile(snapshot)) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE + TRAILER_SIZE || size > Integer.MAX_VALUE) {
+                LOGGER.error("Snapshot is damaged: {}", snapshot);
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                LOGGER.error("Snapshot has unknown format: {}", snapshot);
+                return null;
+            }
+            if (buffer.getLong() != sourceHash) {
+                LOGGER.debug("Snapshot is stale: {}", snapshot);
+                return null;
+            }
+            long nodes = buffer.getInt();
+            long composites = buffer.getInt();
+            long leaves = buffer.getInt();
+            if (nodes < 0 || composites < 0 || leaves < 0 || nodes != composites + leaves
+                    || size != HEADER_SIZE + nodes + composites * Integer.BYTES + leaves * Character.BYTES + TRAILER_SIZE) {
+                LOGGER.error("Snapshot is damaged: {}", snapshot);
+                return null;
+            }
+
+            CRC32C checksum = new CRC32C();
+            checksum.update(buffer.slice(HEADER_SIZE, (int) (size - HEADER_SIZE - TRAILER_SIZE)));
+            if (checksum.getValue() != buffer.getLong((int) (size - TRAILER_SIZE))) {
+                LOGGER.error("Snapshot is damaged: {}", snapshot);
+                return null;
+            }
+
+            int childCountsOffset = (int) (HEADER_SIZE + nodes);
+            int payloadOffset = (int) (childCountsOffset + composites * Integer.BYTES);
+            Loader loader = new Loader(buffer.slice(HEADER_SIZE, (int) nodes),
+                    buffer.slice(childCountsOffset, (int) (composites * Integer.BYTES)).asIntBuffer(),
+                    buffer.slice(payloadOffset, (int) (leaves * Character.BYTES)).asCharBuffer());
+            CommonText text = loader.load();
+            if (!(text instanceof TextComponent)) {
+                LOGGER.error("Snapshot is damaged: {}", snapshot);
+                return null;
+            }
+
+            LOGGER.debug("Snapshot was loaded: {}", snapshot);
+            return (TextComponent) text;
+        } catch (IOException e) {
+            LOGGER.fatal("Problems with reading snapshot: " + snapshot, e);
+            throw new RuntimeException("Problems with reading snapshot: " + snapshot, e);
+        }
+    }
+
+    private static void writeTags(CommonText node, DataOutputStream output) throws IOException {
+        if (node instanceof TextLetter) {
+            output.writeByte(LETTER_TAG);
+            return;
+        }
+        if (node instanceof TextSign) {
+            output.writeByte(SIGN_TAG);
+            return;
+        }
+        output.writeByte(node.getTypeOfTextComponent().ordinal());
+        for (int i = 0; i < node.getComponentsSize(); i++) {
+            if (node.getComponent(i) != null) {
+                writeTags(node.getComponent(i), output);
+            }
+        }
+    }
+
+    private static void writeChildCounts(CommonText node, DataOutputStream output) throws IOException {
+        if (isLeaf(node)) {
+            return;
+        }
+        output.writeInt(childCount(node));
+        for (int i = 0; i < node.getComponentsSize(); i++) {
+            if (node.getComponent(i) != null) {
+                writeChildCounts(node.getComponent(i), output);
+            }
+        }
+    }
+
+    private static void writePayload(CommonText node, DataOutputStream output) throws IOException {
+        if (isLeaf(node)) {
+            output.writeChar(node.getTextMessage().charAt(0));
+            return;
+        }
+        for (int i = 0; i < node.getComponentsSize(); i++) {
+            if (node.getComponent(i) != null) {
+                writePayload(node.getComponent(i), output);
+            }
+        }
+    }
+
+    private static boolean isLeaf(CommonText node) {
+        return node instanceof TextLetter || node instanceof TextSign;
+    }
+
+    private static int childCount(CommonText node) {
+        int count = 0;
+        for (int i = 0; i < node.getComponentsSize(); i++) {
+            if (node.getComponent(i) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static final class Counts {
+        private int nodes;
+        private int composites;
+        private int leaves;
+
+        private void count(CommonText node) {
+            nodes++;
+            if (isLeaf(node)) {
+                leaves++;
+                return;
+            }
+            composites++;
+            for (int i = 0; i < node.getComponentsSize(); i++) {
+                if (node.getComponent(i) != null) {
+                    count(node.getComponent(i));
+                }
+            }
+        }
+    }
+
+    private static final class Loader {
+        private final ByteBuffer tags;
+        private final IntBuffer childCounts;
+        private final CharBuffer payload;
+
+        private Loader(ByteBuffer tags, IntBuffer childCounts, CharBuffer payload) {
+            this.tags = tags;
+            this.childCounts = childCounts;
+            this.payload = payload;
+        }
+
+        private CommonText load() {
+            CommonText text = next();
+            return tags.hasRemaining() ? null : text;
+        }
+
+        private CommonText next() {
+            if (!tags.hasRemaining()) {
+                return null;
+            }
+            byte tag = tags.get();
+            if (tag == LETTER_TAG || tag == SIGN_TAG) {
+                if (!payload.hasRemaining()) {
+                    return null;
+                }
+                return tag == LETTER_TAG ? TextLetter.valueOf(payload.get()) : TextSign.valueOf(payload.get());
+            }
+            if (tag < 0 || tag >= TYPES.length || !childCounts.hasRemaining()) {
+                return null;
+            }
+
+            TextComponent component = new TextComponent(TYPES[tag]);
+            int children = childCounts.get();
+            for (int i = 0; i < children; i++) {
+                CommonText child = next();
+                if (child == null) {
+                    return null;
+                }
+                component.addComponent(child);
+            }
+            return component.getTypeOfTextComponent() == ComponentType.TEXT ? component : component.freeze();
+        }
+    }
+
+}
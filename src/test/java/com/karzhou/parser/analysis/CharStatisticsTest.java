@@ -0,0 +1,119 @@
+package com.karzhou.parser.analysis;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Every way of adding chars, on the Vector API path or not, must count like the per-char rule
+ * of {@code TextOperation.countVowelsAndConsonants}.
+ */
+class CharStatisticsTest {
+    private static final long SEED = 20240917L;
+    private static final String ASCII_PUNCTUATION = "!\"#$%&'()*+,-./:;<=>?@[\\]^_`{|}~";
+    private static final String NON_ASCII = "éÉßПриветЖж٣ー😀 —";
+    private static final int RUNS = 2_000;
+    private static final int MAX_LENGTH = 300;
+
+    @Test
+    void bulkAddCountsLikeRule() {
+        Random random = new Random(SEED);
+        for (int run = 0; run < RUNS; run++) {
+            char[] chars = randomChars(random, run % 4 == 0);
+            int from = random.nextInt(chars.length + 1);
+            int to = from + random.nextInt(chars.length - from + 1);
+            CharStatistics statistics = new CharStatistics();
+            statistics.add(chars, from, to);
+            assertCounts(expected(chars, from, to), statistics);
+        }
+    }
+
+    @Test
+    void charAndSequenceAddsCountLikeRule() {
+        Random random = new Random(SEED);
+        for (int run = 0; run < RUNS; run++) {
+            char[] chars = randomChars(random, run % 2 == 0);
+            String text = new String(chars);
+            CharStatistics oneByOne = new CharStatistics();
+            for (char c : chars) {
+                oneByOne.add(c);
+            }
+            CharStatistics sequence = new CharStatistics();
+            sequence.add(new StringBuilder(text));
+            CharStatistics string = new CharStatistics();
+            string.add(text, 0, text.length());
+
+            long[] expected = expected(chars, 0, chars.length);
+            assertCounts(expected, oneByOne);
+            assertCounts(expected, sequence);
+            assertCounts(expected, string);
+        }
+    }
+
+    @Test
+    void resetClearsCounts() {
+        CharStatistics statistics = new CharStatistics();
+        statistics.add("Hello, world 42");
+        statistics.reset();
+        statistics.add("Ay!");
+        assertCounts(new long[]{0, 2, 0, 0, 1}, statistics);
+    }
+
+    @Test
+    void vectorPathCountsLikeRule() {
+        assumeTrue(CharStatistics.isVectorized(), "JVM runs without jdk.incubator.vector");
+        Random random = new Random(SEED);
+        for (int run = 0; run < RUNS; run++) {
+            char[] chars = randomChars(random, run % 4 == 0);
+            long[] counts = new long[5];
+            int counted = VectorCharStatistics.count(chars, 0, chars.length, counts);
+            long[] expected = expected(chars, 0, counted);
+            for (int i = 0; i < counts.length; i++) {
+                assertEquals(expected[i], counts[i], "class " + i + " of " + new String(chars));
+            }
+        }
+    }
+
+    private static char[] randomChars(Random random, boolean withNonAscii) {
+        char[] chars = new char[random.nextInt(MAX_LENGTH)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = withNonAscii && random.nextInt(16) == 0
+                    ? NON_ASCII.charAt(random.nextInt(NON_ASCII.length()))
+                    : (char) random.nextInt(128);
+        }
+        return chars;
+    }
+
+    private static long[] expected(char[] chars, int from, int to) {
+        long[] counts = new long[5];
+        for (int i = from; i < to; i++) {
+            char c = chars[i];
+            char lowerCase = Character.toLowerCase(c);
+            if (Character.isLetter(lowerCase)) {
+                counts["aeiouy".indexOf(lowerCase) >= 0 ? 1 : 2]++;
+            }
+            else if (Character.isDigit(c)) {
+                counts[3]++;
+            }
+            else if (ASCII_PUNCTUATION.indexOf(c) >= 0) {
+                counts[4]++;
+            }
+            else {
+                counts[0]++;
+            }
+        }
+        return counts;
+    }
+
+    private static void assertCounts(long[] expected, CharStatistics statistics) {
+        assertEquals(expected[0], statistics.getOther(), statistics.toString());
+        assertEquals(expected[1], statistics.getVowels(), statistics.toString());
+        assertEquals(expected[2], statistics.getConsonants(), statistics.toString());
+        assertEquals(expected[3], statistics.getDigits(), statistics.toString());
+        assertEquals(expected[4], statistics.getPunctuation(), statistics.toString());
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.karzhou.parser.parser;
+
+import com.karzhou.parser.composite.impl.TextComponent;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Differential test: after every edit the spliced tree must be exactly the full parse of the edited source.
+ */
+class IncrementalTextParserTest {
+    private static final long SEED = 20240917L;
+    private static final int DOCUMENTS = 500;
+    private static final int EDITS_PER_DOCUMENT = 40;
+    private static final int MAX_TEXT_LENGTH = 120;
+    private static final int MAX_INSERTED_LENGTH = 12;
+
+    private final TextLexer lexer = new TextLexer();
+
+    @Test
+    void editsMatchFullParse() {
+        Random random = new Random(SEED);
+        for (int i = 0; i < DOCUMENTS; i++) {
+            IncrementalTextParser parser = new IncrementalTextParser(ReferenceParser.randomText(random, MAX_TEXT_LENGTH));
+            assertMatchesFullParse(parser, "initial");
+            for (int j = 0; j < EDITS_PER_DOCUMENT; j++) {
+                int length = parser.getSource().length();
+                int offset = random.nextInt(length + 1);
+                int removedLength = random.nextInt(Math.min(length - offset, MAX_INSERTED_LENGTH) + 1);
+                String insertedText = ReferenceParser.randomText(random, MAX_INSERTED_LENGTH);
+                parser.applyEdit(offset, removedLength, insertedText);
+                assertMatchesFullParse(parser, "edit [" + offset + ", +" + removedLength + ") <- '" + insertedText + "'");
+            }
+        }
+    }
+
+    @Test
+    void paragraphDelimiterEditsMatchFullParse() {
+        IncrementalTextParser parser = new IncrementalTextParser("First one.    Second one!    Third one?");
+        parser.applyEdit(10, 4, " ");
+        assertMatchesFullParse(parser, "join paragraphs");
+        parser.applyEdit(10, 1, "    ");
+        assertMatchesFullParse(parser, "split paragraphs");
+        parser.applyEdit(0, parser.getSource().length(), "");
+        assertMatchesFullParse(parser, "clear");
+        parser.applyEdit(0, 0, "    a.    ");
+        assertMatchesFullParse(parser, "insert into empty");
+    }
+
+    private void assertMatchesFullParse(IncrementalTextParser parser, String message) {
+        String source = parser.getSource();
+        TextComponent expected = ReferenceParser.parse(source);
+        TextComponent actual = parser.getText();
+        String context = message + " of '" + source + "'";
+        assertEquals(ReferenceParser.dump(expected), ReferenceParser.dump(actual), context);
+        assertEquals(expected, actual, context);
+        assertEquals(lexer.parse(source), actual, context);
+        assertEquals(expected.getTextMessage(), actual.getTextMessage(), context);
+    }
+
+}
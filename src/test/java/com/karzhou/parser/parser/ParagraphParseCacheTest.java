@@ -0,0 +1,74 @@
+package com.karzhou.parser.parser;
+
+import com.karzhou.parser.composite.impl.TextComponent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParagraphParseCacheTest {
+    private static final String PARAGRAPH = "It has survived - not only (five) centuries. It's a fact!";
+    private static final int THREADS = 16;
+    private static final int ROUNDS = 200;
+
+    private final TextLexer lexer = new TextLexer();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void evictedParagraphIsLoadedFromSpillDirectory() {
+        ParagraphParseCache cache = new ParagraphParseCache(PARAGRAPH.length(), directory);
+        TextComponent expected = lexer.parseParagraph(PARAGRAPH);
+        cache.parse(PARAGRAPH, lexer::parseParagraph);
+        cache.parse("Another paragraph.", lexer::parseParagraph);
+
+        assertEquals(expected, cache.parse(PARAGRAPH, lexer::parseParagraph));
+        assertEquals(1, cache.getDiskHits());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    void concurrentSpillsOfOneParagraphDontFailParse() throws InterruptedException, ExecutionException, IOException {
+        ParagraphParseCache cache = new ParagraphParseCache(1, directory);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                // A new paragraph every round, so every round races for its first spill.
+                String paragraph = PARAGRAPH + " Round " + round + ".";
+                TextComponent expected = lexer.parseParagraph(paragraph);
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<TextComponent>> parses = new ArrayList<>();
+                for (int i = 0; i < THREADS; i++) {
+                    parses.add(executor.submit(() -> {
+                        start.await();
+                        return cache.parse(paragraph, lexer::parseParagraph);
+                    }));
+                }
+                start.countDown();
+                for (Future<TextComponent> parse : parses) {
+                    assertEquals(expected, parse.get());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            assertTrue(files.noneMatch(o -> o.getFileName().toString().endsWith(".tmp")));
+        }
+    }
+
+}
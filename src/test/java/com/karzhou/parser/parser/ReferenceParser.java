@@ -0,0 +1,114 @@
+package com.karzhou.parser.parser;
+
+import com.karzhou.parser.composite.CommonText;
+import com.karzhou.parser.composite.ComponentType;
+import com.karzhou.parser.composite.impl.TextComponent;
+import com.karzhou.parser.composite.impl.TextLetter;
+import com.karzhou.parser.composite.impl.TextSign;
+
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The regex cascade the parser package used before {@link TextLexer}; its output is the
+ * reference every parser of the package must reproduce exactly.
+ */
+final class ReferenceParser {
+    private static final String SPLIT_ON_PARAGRAPHS_REGEXP = "\\s{4}";
+    private static final String SPLIT_ON_SENTENCES_REGEXP = "(?<=[.{1}!?])\\s";
+    private static final String SPLIT_ON_LEXEME_REGEXP = "\\s+(?=[\\w-(])";
+    private static final Pattern WORD_PATTERN = Pattern.compile("[\\w)('][\\w-)(']*");
+    private static final String CHECK_LETTER_REGEXP = "\\w";
+    private static final String ALPHABET = "ab1Z_.!?{}-()',é \t  \u000B";
+
+    private ReferenceParser() {
+    }
+
+    static TextComponent parse(String text) {
+        TextComponent result = new TextComponent(ComponentType.TEXT);
+        for (String paragraph : text.split(SPLIT_ON_PARAGRAPHS_REGEXP)) {
+            result.addComponent(parseParagraph(paragraph));
+        }
+        return result;
+    }
+
+    private static TextComponent parseParagraph(String paragraph) {
+        TextComponent result = new TextComponent(ComponentType.PARAGRAPH);
+        for (String sentence : paragraph.split(SPLIT_ON_SENTENCES_REGEXP)) {
+            result.addComponent(parseSentence(sentence));
+        }
+        return result;
+    }
+
+    private static TextComponent parseSentence(String sentence) {
+        TextComponent result = new TextComponent(ComponentType.SENTENCE);
+        for (String lexeme : sentence.split(SPLIT_ON_LEXEME_REGEXP)) {
+            if (!lexeme.isEmpty()) {
+                result.addComponent(parseLexeme(lexeme));
+            }
+        }
+        return result;
+    }
+
+    private static TextComponent parseLexeme(String lexeme) {
+        TextComponent result = new TextComponent(ComponentType.LEXEME);
+        Matcher matcher = WORD_PATTERN.matcher(lexeme);
+        String word = "";
+        while (matcher.find()) {
+            word = matcher.group();
+            result.addComponent(parseWord(word));
+        }
+        if (lexeme.length() - word.length() == 1) {
+            result.addComponent(new TextSign(lexeme.charAt(lexeme.length() - 1)));
+        }
+        return result;
+    }
+
+    private static TextComponent parseWord(String word) {
+        TextComponent result = new TextComponent(ComponentType.WORD);
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            result.addComponent(String.valueOf(c).matches(CHECK_LETTER_REGEXP) ? new TextLetter(c) : new TextSign(c));
+        }
+        return result;
+    }
+
+    /**
+     * Structure of a tree as a string, e.g. {@code (T(P(S(L(WLaSa)S.))))}; works for any {@link CommonText}.
+     */
+    static String dump(CommonText text) {
+        StringBuilder stringBuilder = new StringBuilder();
+        dump(text, stringBuilder);
+        return stringBuilder.toString();
+    }
+
+    private static void dump(CommonText text, StringBuilder stringBuilder) {
+        if (text instanceof TextLetter) {
+            stringBuilder.append('L').append(text.getTextMessage());
+            return;
+        }
+        if (text instanceof TextSign) {
+            stringBuilder.append('S').append(text.getTextMessage());
+            return;
+        }
+        stringBuilder.append('(').append(text.getTypeOfTextComponent().name().charAt(0));
+        for (int i = 0; i < text.getComponentsSize(); i++) {
+            dump(text.getComponent(i), stringBuilder);
+        }
+        stringBuilder.append(')');
+    }
+
+    /**
+     * Short text over an alphabet dense in delimiters, sentence ends and word signs.
+     */
+    static String randomText(Random random, int maxLength) {
+        int length = random.nextInt(maxLength + 1);
+        StringBuilder stringBuilder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            stringBuilder.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return stringBuilder.toString();
+    }
+
+}
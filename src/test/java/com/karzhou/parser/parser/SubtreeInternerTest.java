@@ -0,0 +1,59 @@
+package com.karzhou.parser.parser;
+
+import com.karzhou.parser.composite.ComponentType;
+import com.karzhou.parser.composite.impl.TextComponent;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Interning shares subtrees but must not change the parsed tree.
+ */
+class SubtreeInternerTest {
+    private static final long SEED = 20240917L;
+    private static final int RANDOM_TEXTS = 2_000;
+    private static final int MAX_LENGTH = 40;
+
+    @Test
+    void internedParseMatchesReference() {
+        TextLexer internedLexer = new TextLexer(new SubtreeInterner(ComponentType.SENTENCE));
+        Random random = new Random(SEED);
+        for (int i = 0; i < RANDOM_TEXTS; i++) {
+            String text = ReferenceParser.randomText(random, MAX_LENGTH);
+            TextComponent expected = ReferenceParser.parse(text);
+            TextComponent actual = internedLexer.parse(text);
+            assertEquals(ReferenceParser.dump(expected), ReferenceParser.dump(actual), text);
+            assertEquals(expected, actual, text);
+        }
+    }
+
+    @Test
+    void equalWordsAreShared() {
+        TextLexer internedLexer = new TextLexer(new SubtreeInterner());
+        TextComponent first = internedLexer.parse("Same word.");
+        TextComponent second = internedLexer.parse("Same word!");
+        assertSame(wordOf(first), wordOf(second));
+    }
+
+    @Test
+    void fullTableStillParsesLikeReference() {
+        SubtreeInterner interner = new SubtreeInterner(ComponentType.LEXEME, 8);
+        TextLexer internedLexer = new TextLexer(interner);
+        Random random = new Random(SEED);
+        for (int i = 0; i < RANDOM_TEXTS; i++) {
+            String text = ReferenceParser.randomText(random, MAX_LENGTH);
+            assertEquals(ReferenceParser.parse(text), internedLexer.parse(text), text);
+        }
+        assertTrue(interner.size() <= 8, interner.toString());
+    }
+
+    // First word of the first lexeme of the first sentence.
+    private static Object wordOf(TextComponent text) {
+        return text.getComponent(0).getComponent(0).getComponent(0).getComponent(0);
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.karzhou.parser.parser;
+
+import com.karzhou.parser.composite.impl.TextComponent;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Differential test: the single-pass lexer must build exactly the tree of the regex cascade.
+ */
+class TextLexerTest {
+    private static final long SEED = 20240917L;
+    private static final int RANDOM_TEXTS = 20_000;
+    private static final int MAX_LENGTH = 40;
+
+    private final TextLexer lexer = new TextLexer();
+
+    @Test
+    void parsesEdgeCasesLikeReference() {
+        String[] texts = {"", " ", "    ", "        ", "a", "a.", "a. b", "a.  b", "a.    b", "-a", "(a)", "a'b-c",
+                "a- b", "a -b", "a,b", "a, b", "{a}", "a{. b", "\u000Ba", "a\tb", "a!?b", "a! b? c. d", "_", "a__b..",
+                "It has survived - not only (five) centuries.    It is a long established fact!"};
+        for (String text : texts) {
+            assertMatchesReference(text);
+        }
+    }
+
+    @Test
+    void parsesRandomTextsLikeReference() {
+        Random random = new Random(SEED);
+        for (int i = 0; i < RANDOM_TEXTS; i++) {
+            assertMatchesReference(ReferenceParser.randomText(random, MAX_LENGTH));
+        }
+    }
+
+    @Test
+    void parsesInputFileLikeReference() throws IOException {
+        try (InputStream input = TextLexerTest.class.getResourceAsStream("/data/input.txt")) {
+            assertNotNull(input, "data/input.txt is missing");
+            assertMatchesReference(new String(input.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    private void assertMatchesReference(String text) {
+        TextComponent expected = ReferenceParser.parse(text);
+        TextComponent actual = lexer.parse(text);
+        String expectedDump = ReferenceParser.dump(expected);
+        assertEquals(expectedDump, ReferenceParser.dump(actual), text);
+        assertEquals(expected, actual, text);
+        assertEquals(expected.getTextMessage(), actual.getTextMessage(), text);
+        assertEquals(expectedDump, ReferenceParser.dump(lexer.parseCompact(text)), text);
+    }
+
+}
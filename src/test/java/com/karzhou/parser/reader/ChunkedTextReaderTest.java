@@ -0,0 +1,59 @@
+package com.karzhou.parser.reader;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ChunkedTextReaderTest {
+    private static final String TEXT = "ab 😀 cd.    Привет, мир!\n    😀😁x\n\n    end";
+    private static final int MAX_CHUNK_SIZE = 32;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void cutsParagraphsLikeSplitForEveryChunkSize() throws IOException {
+        for (Charset charset : List.of(StandardCharsets.UTF_8, StandardCharsets.UTF_16, StandardCharsets.ISO_8859_1)) {
+            String text = new String(TEXT.getBytes(charset), charset);
+            Path file = directory.resolve(charset.name() + ".txt");
+            Files.write(file, text.getBytes(charset));
+            List<String> expected = Arrays.asList(text.replace("\n", "").split("\\s{4}"));
+
+            for (int chunkSize = minChunkSize(charset); chunkSize <= MAX_CHUNK_SIZE; chunkSize++) {
+                assertEquals(expected, readAll(file, chunkSize, charset), charset + ", chunk " + chunkSize);
+            }
+        }
+    }
+
+    @Test
+    void rejectsChunkThatCantHoldSurrogatePair() throws IOException {
+        Path file = directory.resolve("input.txt");
+        Files.writeString(file, TEXT, StandardCharsets.UTF_8);
+        assertThrows(IllegalArgumentException.class, () -> new ChunkedTextReader(file, 3, StandardCharsets.UTF_8));
+        assertEquals(Arrays.asList(TEXT.replace("\n", "").split("\\s{4}")), readAll(file, 6, StandardCharsets.UTF_8));
+    }
+
+    private static int minChunkSize(Charset charset) {
+        return Math.max(4, 2 * (int) Math.ceil(charset.newEncoder().maxBytesPerChar()));
+    }
+
+    private static List<String> readAll(Path file, int chunkSize, Charset charset) {
+        List<String> paragraphs = new ArrayList<>();
+        try (ChunkedTextReader reader = new ChunkedTextReader(file, chunkSize, charset)) {
+            reader.forEachRemaining(paragraphs::add);
+        }
+        return paragraphs;
+    }
+
+}
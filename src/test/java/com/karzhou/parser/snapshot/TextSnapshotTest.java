@@ -0,0 +1,69 @@
+package com.karzhou.parser.snapshot;
+
+import com.karzhou.parser.composite.impl.TextComponent;
+import com.karzhou.parser.parser.TextLexer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TextSnapshotTest {
+    private static final long SOURCE_HASH = 42L;
+    private static final int THREADS = 16;
+    private static final int ROUNDS = 50;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void loadsWhatWasWritten() {
+        TextComponent text = new TextLexer().parse("It has survived - not (only) five centuries.    It's a fact!");
+        Path snapshot = directory.resolve("text.snap");
+        TextSnapshot.write(text, snapshot, SOURCE_HASH);
+        assertEquals(text, TextSnapshot.load(snapshot, SOURCE_HASH));
+        assertEquals(null, TextSnapshot.load(snapshot, SOURCE_HASH + 1));
+    }
+
+    @Test
+    void concurrentWritesOfOneSnapshotDontFail() throws InterruptedException, ExecutionException, IOException {
+        TextComponent text = new TextLexer().parse("Same text for every writer. Again and again!");
+        Path snapshot = directory.resolve("text.snap");
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<?>> writes = new ArrayList<>();
+                for (int i = 0; i < THREADS; i++) {
+                    writes.add(executor.submit(() -> {
+                        start.await();
+                        TextSnapshot.write(text, snapshot, SOURCE_HASH);
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (Future<?> write : writes) {
+                    write.get();
+                }
+                assertEquals(text, TextSnapshot.load(snapshot, SOURCE_HASH));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(List.of(snapshot), files.toList());
+        }
+    }
+
+}